@@ -0,0 +1,9 @@
+/*
+ * ===================================================================
+ * INTERFACE: BonusPayable (Annual Bonus Behavior)
+ * ===================================================================
+ */
+interface BonusPayable {
+    double BONUS_RATE = 0.05;
+    double calculateAnnualBonus();
+}
@@ -0,0 +1,490 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/*
+ * ===================================================================
+ * CLASS: Company (Payroll Engine)
+ * ===================================================================
+ * The shared engine behind BOTH front ends: EmployeePayrollSystem
+ * (console) and CompanyPayrollGUI (Swing) only handle input and output.
+ * Owns the employees and departments, keeps the lookup indexes and the
+ * report cache and the primitive pay columns in sync, and renders
+ * report text from PayrollTotals.
+ * Not thread-safe: each front end uses it from one thread.
+ *
+ * Build everything together:
+ *   javac -encoding UTF-8 *.java
+ */
+class Company {
+    private ArrayList<Employee> allEmployeesList = new ArrayList<>();
+    private ArrayList<Department> allDepartmentsList = new ArrayList<>();
+    private EmployeeIndex employeesById = new EmployeeIndex(); // Keys are packed IDs
+    private HashMap<String, Department> departmentsById = new HashMap<>(); // Keys are upper-cased IDs
+    private HashMap<Department, ArrayList<Employee>> employeesByDept = new HashMap<>(); // Membership index, hire order
+    // PAY COLUMNS: one row per employee in hire order (= allEmployeesList), read by PayrollTotals
+    private final PayrollColumns payrollColumns = new PayrollColumns();
+    private final ArrayList<Department> departmentTable = new ArrayList<>(); // Slot -> department, slots are never reused
+    private final HashMap<Department, Integer> departmentSlots = new HashMap<>();
+    // RUNNING TOTALS: updated with every change to the pay columns, so reports need no kernel pass
+    private final PayrollSubtotals runningTotals = new PayrollSubtotals(0);
+    private final ReportCache reportCache = new ReportCache();
+    private final CompanyEventStream events = new CompanyEventStream(1024);
+    private final TrainingLog trainingLog;
+
+    Company() {
+        this(new TrainingLog());
+    }
+
+    /** Writes compliance records to the given log instead of training_log.txt. */
+    Company(TrainingLog trainingLog) {
+        this.trainingLog = trainingLog;
+    }
+
+    /** Subscribes to hires, new departments and hour updates instead of polling reports. */
+    public void addChangeListener(CompanyChangeListener listener) { events.subscribe(listener); }
+    public void removeChangeListener(CompanyChangeListener listener) { events.unsubscribe(listener); }
+    /** Change events lost because subscribers fell too far behind; see CompanyEventStream. */
+    public long getDroppedEventCount() { return events.getDroppedCount(); }
+
+    public String hireEmployee(Employee employee) {
+        int slot = slotOf(employee.getWorkingDept());
+        int row = payrollColumns.add(employee, slot);
+        employee.setPayrollRow(row);
+        runningTotals.addRow(slot, payrollColumns.weeklyPay(row), payrollColumns.annualBonus(row));
+        this.allEmployeesList.add(employee);
+        this.employeesById.put(employee);
+        this.employeesByDept.computeIfAbsent(employee.getWorkingDept(), d -> new ArrayList<>()).add(employee);
+        reportCache.invalidate(ReportType.ALL_EMPLOYEES, ReportType.COMPANY_PAYROLL, ReportType.END_OF_YEAR);
+        reportCache.invalidateDepartment(employee.getWorkingDept());
+        events.publish(CompanyEvent.Type.EMPLOYEE_HIRED, employee, employee.getWorkingDept(), 0);
+        return String.format("HIRE SUCCESS: %s (%s) has been hired into %s.",
+            employee.getFullName(), employee.getEmployeeID(), employee.getWorkingDept().getDeptName());
+    }
+
+    public void addDepartment(Department dept) {
+        this.allDepartmentsList.add(dept);
+        this.departmentsById.putIfAbsent(dept.getDeptId().toUpperCase(Locale.ROOT), dept);
+        if (!departmentSlots.containsKey(dept)) {
+            int slot = departmentTable.size();
+            departmentTable.add(dept);
+            departmentSlots.put(dept, slot);
+            runningTotals.ensureSlots(departmentTable.size());
+            // Employees hired into the department before it was added
+            for (Employee emp : employeesByDept.getOrDefault(dept, new ArrayList<>())) {
+                payrollColumns.setDeptSlot(emp.getPayrollRow(), slot);
+                runningTotals.moveRow(-1, slot, payrollColumns.weeklyPay(emp.getPayrollRow()));
+            }
+        }
+        reportCache.invalidate(ReportType.DEPARTMENT_PAYROLL);
+        events.publish(CompanyEvent.Type.DEPARTMENT_ADDED, null, dept, 0);
+    }
+
+    /**
+     * Updates hours through the Company so cached reports stay valid.
+     * Only the reports that show pay, and the employee's own department section, are dropped.
+     */
+    public void setHoursWorked(PartTimeEmployee ptEmp, int hours) {
+        if (ptEmp.getHoursWorked() == hours) return; // Nothing changed, keep the cache
+        ptEmp.setHoursWorked(hours);
+        if (isMember(ptEmp)) {
+            int row = ptEmp.getPayrollRow();
+            double oldPay = payrollColumns.weeklyPay(row);
+            payrollColumns.setHours(row, hours);
+            runningTotals.changePay(payrollColumns.getDeptSlot(row), oldPay, payrollColumns.weeklyPay(row));
+        }
+        reportCache.invalidate(ReportType.ALL_EMPLOYEES, ReportType.COMPANY_PAYROLL);
+        reportCache.invalidateDepartment(ptEmp.getWorkingDept());
+        events.publish(CompanyEvent.Type.HOURS_UPDATED, ptEmp, ptEmp.getWorkingDept(), hours);
+    }
+
+    public Employee findEmployeeByID(String id) {
+        return (id == null) ? null : employeesById.get(EmployeeIds.parse(id)); // Parsed once, no allocation
+    }
+    public Department findDepartmentById(String id) {
+        return (id == null) ? null : departmentsById.get(id.toUpperCase(Locale.ROOT));
+    }
+    public ArrayList<Department> getAvailableDepartments() { return this.allDepartmentsList; }
+    public List<Employee> getEmployees() { return Collections.unmodifiableList(allEmployeesList); }
+    public List<PartTimeEmployee> getPartTimeEmployees() {
+        ArrayList<PartTimeEmployee> partTimers = new ArrayList<>();
+        for (Employee emp : allEmployeesList) {
+            if (emp instanceof PartTimeEmployee) partTimers.add((PartTimeEmployee) emp);
+        }
+        return partTimers;
+    }
+    public List<Employee> getEmployeesInDepartment(Department dept) {
+        return Collections.unmodifiableList(employeesByDept.getOrDefault(dept, new ArrayList<>()));
+    }
+
+    // --- Bulk Reorganization ---
+
+    /**
+     * REORG: Moves employees to another department without a pass over the company. Source
+     * departments are cleaned with a single removeIf each, the movers are merged into the
+     * target list by payroll row (= hire order), and only the touched department sections
+     * are dropped from the report cache.
+     * @return the number of employees that actually changed department
+     * @throws IllegalArgumentException if any employee is not part of this company; nothing is moved then
+     */
+    public int moveEmployees(Collection<? extends Employee> employees, Department target) {
+        requireDepartment(target);
+        HashSet<Employee> movers = new HashSet<>();
+        HashSet<Department> sources = new HashSet<>();
+        for (Employee emp : employees) {
+            if (!isMember(emp)) {
+                throw new IllegalArgumentException("Employee " + emp.getEmployeeID() + " is not part of this company.");
+            }
+            if (!emp.getWorkingDept().equals(target) && movers.add(emp)) {
+                sources.add(emp.getWorkingDept());
+            }
+        }
+        if (movers.isEmpty()) return 0;
+
+        for (Department source : sources) {
+            ArrayList<Employee> members = employeesByDept.get(source);
+            if (members != null) members.removeIf(movers::contains);
+            reportCache.invalidateDepartment(source);
+        }
+
+        int targetSlot = slotOf(target);
+        ArrayList<Employee> moved = new ArrayList<>(movers);
+        moved.sort(Comparator.comparingInt(Employee::getPayrollRow)); // Hire order, for the merge and the event
+        for (Employee emp : moved) {
+            int row = emp.getPayrollRow();
+            runningTotals.moveRow(payrollColumns.getDeptSlot(row), targetSlot, payrollColumns.weeklyPay(row));
+            emp.setWorkingDept(target);
+            payrollColumns.setDeptSlot(row, targetSlot);
+        }
+        employeesByDept.put(target, mergeByPayrollRow(employeesByDept.getOrDefault(target, new ArrayList<>()), moved));
+        reportCache.invalidateDepartment(target);
+        reportCache.invalidate(ReportType.ALL_EMPLOYEES, ReportType.COMPANY_PAYROLL, ReportType.END_OF_YEAR);
+
+        events.publishMoved(moved, target); // One event for the whole move
+        return movers.size();
+    }
+
+    /**
+     * REORG: Moves everyone from one department into another and removes the emptied one.
+     * @return the number of employees moved
+     */
+    public int mergeDepartments(Department from, Department into) {
+        requireDepartment(from);
+        requireDepartment(into);
+        if (from.equals(into)) throw new IllegalArgumentException("Cannot merge a department into itself.");
+
+        int moved = moveEmployees(new ArrayList<>(employeesByDept.getOrDefault(from, new ArrayList<>())), into);
+        allDepartmentsList.remove(from);
+        departmentsById.remove(from.getDeptId().toUpperCase(Locale.ROOT), from);
+        departmentSlots.remove(from); // Its slot stays unused in departmentTable
+        employeesByDept.remove(from);
+        reportCache.invalidateDepartment(from);
+        events.publish(CompanyEvent.Type.DEPARTMENT_REMOVED, null, from, 0);
+        return moved;
+    }
+
+    /**
+     * REORG: Moves the employees of a department that match the predicate into a new
+     * department (added to the company if needed).
+     * @return the number of employees moved
+     */
+    public int splitDepartment(Department source, Department newDept, Predicate<Employee> predicate) {
+        requireDepartment(source);
+        if (!allDepartmentsList.contains(newDept)) addDepartment(newDept);
+
+        ArrayList<Employee> selected = new ArrayList<>();
+        for (Employee emp : employeesByDept.getOrDefault(source, new ArrayList<>())) {
+            if (predicate.test(emp)) selected.add(emp);
+        }
+        return moveEmployees(selected, newDept);
+    }
+
+    /** Merges two member lists that are each in payroll row order into one such list. */
+    private static ArrayList<Employee> mergeByPayrollRow(List<Employee> a, List<Employee> b) {
+        ArrayList<Employee> merged = new ArrayList<>(a.size() + b.size());
+        int i = 0;
+        int j = 0;
+        while (i < a.size() && j < b.size()) {
+            merged.add(a.get(i).getPayrollRow() < b.get(j).getPayrollRow() ? a.get(i++) : b.get(j++));
+        }
+        merged.addAll(a.subList(i, a.size()));
+        merged.addAll(b.subList(j, b.size()));
+        return merged;
+    }
+
+    /** Slot of a department in the pay columns, -1 if it is not part of this company. */
+    private int slotOf(Department dept) {
+        return departmentSlots.getOrDefault(dept, -1);
+    }
+
+    private boolean isMember(Employee emp) {
+        int row = emp.getPayrollRow();
+        return row >= 0 && row < allEmployeesList.size() && allEmployeesList.get(row) == emp;
+    }
+
+    /** Package-private so PayrollSelfCheck can compare cached reports with fresh renders. */
+    void clearReportCache() {
+        reportCache.clear();
+    }
+
+    /** A copy of the running totals; package-private so PayrollSelfCheck can compare them with the kernel. */
+    PayrollSubtotals runningTotals() {
+        return runningTotals.copy();
+    }
+
+    /** Package-private so PayrollSelfCheck can compare the kernel with the per-object results. */
+    PayrollTotals computeTotals() {
+        return PayrollTotals.compute(payrollColumns, departmentTable.size());
+    }
+
+    /**
+     * CONCURRENCY: A detached copy of the pay report inputs. Take it on the Company's
+     * thread; the copy can then be rendered on any thread.
+     */
+    public PayrollSnapshot snapshot() {
+        int[] rows = new int[allEmployeesList.size()];
+        for (int i = 0; i < rows.length; i++) rows[i] = i;
+        HashMap<Department, int[]> departmentRows = new HashMap<>(); // All rows are copied, so row numbers stay the same
+        for (Department dept : departmentSlots.keySet()) departmentRows.put(dept, payrollRowsOf(dept));
+        return detachedSnapshot(allEmployeesList, rows, new HashMap<>(departmentSlots), departmentRows);
+    }
+
+    /** CONCURRENCY: Like snapshot(), but only copies the rows of one department. */
+    public PayrollSnapshot snapshot(Department dept) {
+        requireDepartment(dept);
+        List<Employee> members = employeesByDept.getOrDefault(dept, new ArrayList<>());
+        int[] rows = payrollRowsOf(dept);
+        int[] copiedRows = new int[rows.length]; // The copy holds only the members, renumbered from 0
+        for (int i = 0; i < copiedRows.length; i++) copiedRows[i] = i;
+        return detachedSnapshot(members, rows, Collections.singletonMap(dept, slotOf(dept)),
+                Collections.singletonMap(dept, copiedRows));
+    }
+
+    private PayrollSnapshot detachedSnapshot(List<Employee> employees, int[] rows, Map<Department, Integer> slots,
+                                             Map<Department, int[]> departmentRows) {
+        ArrayList<Department> rowDepartments = new ArrayList<>(employees.size());
+        for (Employee emp : employees) rowDepartments.add(emp.getWorkingDept());
+        return new PayrollSnapshot(new ArrayList<>(employees), rowDepartments, payrollColumns.copyRows(rows),
+                slots, departmentRows::get, runningTotals.copy());
+    }
+
+    /** Pay column rows of a department's members, in hire order. */
+    private int[] payrollRowsOf(Department dept) {
+        List<Employee> members = employeesByDept.getOrDefault(dept, new ArrayList<>());
+        int[] rows = new int[members.size()];
+        for (int i = 0; i < rows.length; i++) rows[i] = members.get(i).getPayrollRow();
+        return rows;
+    }
+
+    /** The Company's own structures, not copied; only valid until the next change. */
+    private PayrollSnapshot liveView() {
+        return liveView(runningTotals);
+    }
+
+    private PayrollSnapshot liveView(PayrollSubtotals sums) {
+        List<Department> rowDepartments = new AbstractList<Department>() {
+            @Override public Department get(int row) { return allEmployeesList.get(row).getWorkingDept(); }
+            @Override public int size() { return allEmployeesList.size(); }
+        };
+        return new PayrollSnapshot(allEmployeesList, rowDepartments, payrollColumns, departmentSlots,
+                this::payrollRowsOf, sums);
+    }
+
+    private void requireDepartment(Department dept) {
+        if (!allDepartmentsList.contains(dept)) {
+            throw new IllegalArgumentException("Department " + dept.getDeptName() + " is not part of this company.");
+        }
+    }
+
+    public String getAllEmployeesDetailsAsString() {
+        if (allEmployeesList.isEmpty()) return "No employees have been hired yet.";
+        String cached = reportCache.get(ReportType.ALL_EMPLOYEES);
+        if (cached != null) return cached;
+        StringBuilder sb = new StringBuilder("--- ALL EMPLOYEES IN COMPANY ---\n\n");
+        allEmployeesList.forEach(emp -> sb.append(emp.getDetailsAsString()).append("\n"));
+        sb.append("--- END OF LIST ---");
+        String report = sb.toString();
+        reportCache.put(ReportType.ALL_EMPLOYEES, report);
+        return report;
+    }
+    
+    public String generatePayrollReportAsString() {
+        String cached = reportCache.get(ReportType.COMPANY_PAYROLL);
+        if (cached != null) return cached;
+        String report = liveView().renderCompanyPayroll();
+        reportCache.put(ReportType.COMPANY_PAYROLL, report);
+        return report;
+    }
+
+    public String generateDepartmentPayrollReportAsString() {
+        String cached = reportCache.get(ReportType.DEPARTMENT_PAYROLL);
+        if (cached != null) return cached;
+        PayrollSnapshot view = liveView();
+        String report = renderDepartmentPayroll(dept -> {
+            ReportCache.DepartmentSection section = reportCache.getSection(dept);
+            if (section == null) {
+                section = view.renderDepartmentSection(dept);
+                reportCache.putSection(dept, section);
+            }
+            return section;
+        });
+        reportCache.put(ReportType.DEPARTMENT_PAYROLL, report);
+        return report;
+    }
+
+    /**
+     * REPORT: The same department report, but the sums come from PayrollShardServer
+     * processes: the pay rows are loaded into the shards and their subtotals merged.
+     * Not cached, since the point is to run the shards.
+     */
+    public String generateDepartmentPayrollReportAsString(PayrollShardClient shards) throws IOException {
+        shards.load(payrollColumns);
+        PayrollSnapshot view = liveView(shards.totals(departmentTable.size()));
+        return renderDepartmentPayroll(view::renderDepartmentSection);
+    }
+
+    private String renderDepartmentPayroll(Function<Department, ReportCache.DepartmentSection> sections) {
+        StringBuilder sb = new StringBuilder("--- WEEKLY PAYROLL REPORT BY DEPARTMENT ---\n");
+        double grandTotal = 0.0;
+        for (Department dept : allDepartmentsList) {
+            ReportCache.DepartmentSection section = sections.apply(dept);
+            sb.append(section.text);
+            grandTotal += section.subtotal;
+        }
+        sb.append("\n=============================================\n");
+        sb.append(String.format("GRAND TOTAL (ALL DEPTS): $%,.2f%n", grandTotal));
+        return sb.toString();
+    }
+
+    /**
+     * REPORT: One department's section on its own, e.g. for a scheduled per-department run.
+     * @throws IllegalArgumentException if the department is not (or no longer) part of this company
+     */
+    public String generateDepartmentReportAsString(Department dept) {
+        requireDepartment(dept);
+        ReportCache.DepartmentSection section = reportCache.getSection(dept);
+        if (section == null) {
+            section = liveView().renderDepartmentSection(dept);
+            reportCache.putSection(dept, section);
+        }
+        return "--- WEEKLY PAYROLL REPORT BY DEPARTMENT ---\n" + section.text;
+    }
+
+    public String runEndOfYearReportsAsString() {
+        String cached = reportCache.get(ReportType.END_OF_YEAR);
+        if (cached != null) return cached;
+        StringBuilder sb = new StringBuilder("--- END-OF-YEAR BONUS & TRAINING REPORT ---\n\n");
+        for (int i = 0; i < allEmployeesList.size(); i++) {
+            Employee emp = allEmployeesList.get(i);
+            if (emp instanceof BonusPayable) {
+                sb.append(String.format("BONUS: %s (%s, %s) earned $%,.2f%n",
+                        emp.getFullName(), emp.getEmployeeID(), emp.getWorkingDept().getDeptName(), payrollColumns.annualBonus(i)));
+            }
+            if (emp instanceof TrainingRequired) {
+                sb.append(((PartTimeEmployee)emp).getTrainingLogMessage()).append("\n");
+            }
+        }
+        String report = sb.toString();
+        reportCache.put(ReportType.END_OF_YEAR, report);
+        return report;
+    }
+
+    /**
+     * TRAINING: Appends one compliance record per TrainingRequired employee to the
+     * durable log in one batch; only once that write is on disk are the employees
+     * marked as trained. If the write fails nothing changes and the call can be retried.
+     * @return the number of records written
+     */
+    public int recordEndOfYearTraining() throws IOException {
+        ArrayList<Employee> trainees = new ArrayList<>();
+        for (Employee emp : allEmployeesList) {
+            if (emp instanceof TrainingRequired) trainees.add(emp);
+        }
+        int written = trainingLog.append(trainees);
+        for (Employee emp : trainees) {
+            ((TrainingRequired) emp).attendMandatoryTraining();
+        }
+        reportCache.invalidate(ReportType.ALL_EMPLOYEES); // Details show the training date
+        return written;
+    }
+
+    /** Run ID stamped on the records of the last recordEndOfYearTraining() call. */
+    public String getLastTrainingRunId() { return trainingLog.getLastRunId(); }
+
+    /**
+     * WHAT-IF: Evaluates every scenario against the current employees (read-only,
+     * no copies). Scenarios are independent, so they run in parallel across cores.
+     */
+    public List<ScenarioResult> simulateScenarios(List<PayrollScenario> scenarios) {
+        HashMap<Department, Integer> positions = new HashMap<>();
+        for (int d = 0; d < allDepartmentsList.size(); d++) {
+            positions.putIfAbsent(allDepartmentsList.get(d), d);
+        }
+        List<Employee> snapshot = Collections.unmodifiableList(allEmployeesList);
+
+        return scenarios.parallelStream().map(scenario -> {
+            ScenarioResult result = new ScenarioResult(scenario.getName(), allDepartmentsList.size());
+            for (Employee emp : snapshot) {
+                Integer d = positions.get(emp.getWorkingDept());
+                if (d != null) {
+                    result.add(d, scenario.weeklyPay(emp), scenario.annualBonus(emp));
+                }
+            }
+            return result;
+        }).collect(Collectors.toList());
+    }
+
+    /**
+     * REPORT: Compares current payroll with one what-if scenario, by department.
+     */
+    public String generateScenarioReportAsString(PayrollScenario scenario) {
+        List<ScenarioResult> results = simulateScenarios(List.of(new PayrollScenario("Current"), scenario));
+        ScenarioResult current = results.get(0);
+        ScenarioResult whatIf = results.get(1);
+
+        StringBuilder sb = new StringBuilder("--- WHAT-IF SCENARIO: " + scenario.getName() + " ---\n");
+        sb.append(String.format("%-15s %18s %18s %18s %18s%n", "DEPARTMENT", "PAYROLL (NOW)", "PAYROLL (WHAT-IF)", "BONUS (NOW)", "BONUS (WHAT-IF)"));
+        double[] totals = new double[4];
+        for (int d = 0; d < allDepartmentsList.size(); d++) {
+            double[] row = { current.getDeptPayroll(d), whatIf.getDeptPayroll(d),
+                             current.getDeptBonusCost(d), whatIf.getDeptBonusCost(d) };
+            sb.append(String.format("%-15s %,18.2f %,18.2f %,18.2f %,18.2f%n", allDepartmentsList.get(d).getDeptName(), row[0], row[1], row[2], row[3]));
+            for (int c = 0; c < row.length; c++) totals[c] += row[c];
+        }
+        sb.append("----------------------------------------------------------------------------------------------\n");
+        sb.append(String.format("%-15s %,18.2f %,18.2f %,18.2f %,18.2f%n", "TOTAL", totals[0], totals[1], totals[2], totals[3]));
+        return sb.toString();
+    }
+
+    /**
+     * PAYSLIPS: Renders one payslip per employee into the directory, in parallel.
+     * @return the number of payslips written
+     */
+    public int generatePayslips(Path directory, boolean html) throws IOException, InterruptedException {
+        PayrollTotals totals = computeTotals();
+        PayslipGenerator generator = new PayslipGenerator(
+                html ? PayslipGenerator.HTML_TEMPLATE : PayslipGenerator.TEXT_TEMPLATE, html);
+        return generator.writeAll(allEmployeesList, totals, directory);
+    }
+
+    /**
+     * EXPORT: Writes the current pay run as CSV and as a compact columnar file.
+     * To export off this thread, call snapshot().export(directory) there instead.
+     * @return a short summary for the display area
+     */
+    public String exportPayroll(Path directory) throws IOException {
+        return liveView().export(directory);
+    }
+}
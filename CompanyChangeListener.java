@@ -0,0 +1,11 @@
+import java.util.List;
+
+/*
+ * ===================================================================
+ * INTERFACE: CompanyChangeListener (Event Subscriber)
+ * ===================================================================
+ */
+interface CompanyChangeListener {
+    /** Called on the dispatcher thread with events in publish order. */
+    void onCompanyChanges(List<CompanyEvent> batch);
+}
@@ -0,0 +1,69 @@
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * ===================================================================
+ * CLASS: CompanyEvent (Change-Data-Capture Record)
+ * ===================================================================
+ * One typed change published by Company through its CompanyEventStream.
+ * A bulk move is ONE EMPLOYEES_MOVED event listing every mover.
+ * EVENTS_DROPPED is not a change: the stream inserts it when events
+ * were lost, so subscribers know to resync from the Company.
+ */
+class CompanyEvent {
+    enum Type { EMPLOYEE_HIRED, DEPARTMENT_ADDED, HOURS_UPDATED, EMPLOYEES_MOVED, DEPARTMENT_REMOVED, EVENTS_DROPPED }
+
+    private final long sequence;         // 0 for EVENTS_DROPPED
+    private final Type type;
+    private final Employee employee;     // null for department events, moves and EVENTS_DROPPED
+    private final List<Employee> movedEmployees; // Only for EMPLOYEES_MOVED, in hire order; otherwise empty
+    private final Department department; // For EMPLOYEES_MOVED, the new department; null for EVENTS_DROPPED
+    private final int hoursWorked;       // Only meaningful for HOURS_UPDATED
+    private final long droppedEvents;    // Only meaningful for EVENTS_DROPPED
+
+    CompanyEvent(long sequence, Type type, Employee employee, Department department, int hoursWorked) {
+        this(sequence, type, employee, Collections.emptyList(), department, hoursWorked, 0);
+    }
+
+    private CompanyEvent(long sequence, Type type, Employee employee, List<Employee> movedEmployees,
+                         Department department, int hoursWorked, long droppedEvents) {
+        this.sequence = sequence;
+        this.type = type;
+        this.employee = employee;
+        this.movedEmployees = movedEmployees;
+        this.department = department;
+        this.hoursWorked = hoursWorked;
+        this.droppedEvents = droppedEvents;
+    }
+
+    static CompanyEvent moved(long sequence, List<Employee> movedEmployees, Department target) {
+        return new CompanyEvent(sequence, Type.EMPLOYEES_MOVED, null,
+                Collections.unmodifiableList(movedEmployees), target, 0, 0);
+    }
+
+    static CompanyEvent dropped(long droppedEvents) {
+        return new CompanyEvent(0, Type.EVENTS_DROPPED, null, Collections.emptyList(), null, 0, droppedEvents);
+    }
+
+    public long getSequence() { return sequence; }
+    public Type getType() { return type; }
+    public Employee getEmployee() { return employee; }
+    public List<Employee> getMovedEmployees() { return movedEmployees; }
+    public Department getDepartment() { return department; }
+    public int getHoursWorked() { return hoursWorked; }
+    public long getDroppedEvents() { return droppedEvents; }
+
+    @Override
+    public String toString() {
+        switch (type) {
+            case EMPLOYEES_MOVED:
+                return String.format("#%d %s %d employee(s) to %s", sequence, type, movedEmployees.size(), department.getDeptName());
+            case EVENTS_DROPPED:
+                return String.format("%s %d event(s)", type, droppedEvents);
+            default:
+                return String.format("#%d %s %s%s", sequence, type,
+                        employee != null ? employee.getEmployeeID() + " in " : "",
+                        department != null ? department.getDeptName() : "(no department)");
+        }
+    }
+}
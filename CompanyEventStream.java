@@ -0,0 +1,119 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * ===================================================================
+ * CLASS: CompanyEventStream (Change-Data-Capture Stream)
+ * ===================================================================
+ * Company publishes one typed event per change. Events go through a
+ * bounded queue to a dispatcher thread that hands them to subscribers
+ * in batches. When the queue is full the publisher (often the EDT)
+ * waits at most OFFER_TIMEOUT_MS; after that the event is DROPPED and
+ * counted, and subscribers get an EVENTS_DROPPED event so they can
+ * resync from the Company instead of missing changes silently. While
+ * drops are still unreported, further events are dropped without the
+ * wait, so a stalled subscriber costs the publisher one timeout per
+ * dispatcher batch rather than one per event.
+ */
+class CompanyEventStream {
+    private static final int MAX_BATCH = 256;
+    private static final long OFFER_TIMEOUT_MS = 5;
+    private static final long DROP_NOTICE_INTERVAL_MS = 1_000; // Idle dispatcher still reports drops this often
+
+    private final BlockingQueue<CompanyEvent> queue;
+    private final List<CompanyChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong droppedTotal = new AtomicLong();
+    private final AtomicLong droppedUnreported = new AtomicLong();
+    private long nextSequence = 1;
+    private Thread dispatcher;
+
+    CompanyEventStream(int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    public synchronized void subscribe(CompanyChangeListener listener) {
+        listeners.add(listener);
+        if (dispatcher == null) {
+            dispatcher = new Thread(this::dispatchLoop, "company-events");
+            dispatcher.setDaemon(true);
+            dispatcher.start();
+        }
+    }
+
+    public void unsubscribe(CompanyChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /** Waits at most OFFER_TIMEOUT_MS while the queue is full (see enqueue). Without subscribers nothing is queued. */
+    public void publish(CompanyEvent.Type type, Employee employee, Department department, int hoursWorked) {
+        if (listeners.isEmpty()) return;
+        CompanyEvent event;
+        synchronized (this) {
+            event = new CompanyEvent(nextSequence++, type, employee, department, hoursWorked);
+        }
+        enqueue(event);
+    }
+
+    /** One event for a whole bulk move, however many employees it covers. */
+    public void publishMoved(List<Employee> movedEmployees, Department target) {
+        if (listeners.isEmpty()) return;
+        CompanyEvent event;
+        synchronized (this) {
+            event = CompanyEvent.moved(nextSequence++, movedEmployees, target);
+        }
+        enqueue(event);
+    }
+
+    /** Total number of events dropped because the queue stayed full (or the publisher was interrupted). */
+    public long getDroppedCount() { return droppedTotal.get(); }
+
+    private void enqueue(CompanyEvent event) {
+        boolean queued = false;
+        try {
+            // Once an offer has timed out, the dispatcher is behind: skip the wait until it reports the drops
+            queued = droppedUnreported.get() > 0
+                    ? queue.offer(event)
+                    : queue.offer(event, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Keep the interrupt for the caller; the event counts as dropped
+        }
+        if (!queued) {
+            droppedTotal.incrementAndGet();
+            droppedUnreported.incrementAndGet();
+        }
+    }
+
+    private void dispatchLoop() {
+        while (true) {
+            List<CompanyEvent> batch = new ArrayList<>();
+            CompanyEvent first;
+            try {
+                first = queue.poll(DROP_NOTICE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            long dropped = droppedUnreported.getAndSet(0);
+            if (dropped > 0) batch.add(CompanyEvent.dropped(dropped)); // Subscribers resync from the Company
+            if (first != null) {
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - batch.size());
+            }
+            if (batch.isEmpty()) continue;
+
+            List<CompanyEvent> delivered = Collections.unmodifiableList(batch);
+            for (CompanyChangeListener listener : listeners) {
+                try {
+                    listener.onCompanyChanges(delivered);
+                } catch (RuntimeException e) {
+                    System.err.println("Company event listener failed: " + e); // One bad subscriber must not stop the rest
+                }
+            }
+        }
+    }
+}
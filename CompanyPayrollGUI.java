@@ -1,77 +1,40 @@
 import java.awt.*;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 
-/*
- * ===================================================================
- * OOP CONCEPTS: Enums and Interfaces (Unchanged)
- * ===================================================================
- */
-enum EmployeeType {
-    FULL_TIME_SALARIED,
-    PART_TIME_HOURLY
-}
-
-interface BonusPayable {
-    double BONUS_RATE = 0.05;
-    double calculateAnnualBonus();
-}
-
-interface TrainingRequired {
-    void attendMandatoryTraining();
-}
-
-/*
- * ===================================================================
- * NEW CLASS: Department (Data Model)
- * ===================================================================
- */
-class Department {
-    private String deptId;
-    private String deptName;
-
-    public Department(String deptId, String deptName) {
-        this.deptId = deptId;
-        this.deptName = deptName;
-    }
-
-    public String getDeptId() { return deptId; }
-    public String getDeptName() { return deptName; }
-
-    @Override
-    public boolean equals(Object obj) {
-        if (this == obj) return true;
-        if (obj == null || getClass() != obj.getClass()) return false;
-        Department that = (Department) obj;
-        return deptId.equals(that.deptId);
-    }
-
-    @Override
-    public int hashCode() {
-        return deptId.hashCode();
-    }
-
-    /**
-     * IMPORTANT: Overriding toString() allows the object to be displayed
-     * correctly in Swing components like JComboBox (dropdown menus).
-     */
-    @Override
-    public String toString() {
-        return this.deptName; // Display the department name in UI components
-    }
-}
-
-
 /*
  * ===================================================================
  * FILE: CompanyPayrollGUI.java (Main Public Class)
  * ===================================================================
+ * Swing front end. All payroll logic and report text live in the
+ * shared engine (Company and the model classes); this class only
+ * collects input and shows results. Build with: javac -encoding UTF-8 *.java
  */
 public class CompanyPayrollGUI extends JFrame {
 
-    private final Company company = new Company();
+    private Company company; // Set on the EDT once the background load finishes
+    private static final Path SCHEDULED_REPORTS_DIR = Paths.get("scheduled_reports");
+    private static final String DEPARTMENT_JOB_PREFIX = "Dept payroll: ";
+
+    private final PayrollScheduler scheduler = new PayrollScheduler();
     private JTextArea displayArea;
+    private final ArrayList<JButton> companyButtons = new ArrayList<>(); // Disabled until the Company is loaded
 
     public CompanyPayrollGUI() {
         setTitle("HR Payroll Management System v5.0");
@@ -80,11 +43,43 @@ public class CompanyPayrollGUI extends JFrame {
         setLocationRelativeTo(null);
 
         initUI();
+        displayArea.setText("(Loading company data...)\n");
+    }
+
+    /**
+     * FAST STARTUP: The window is shown first; the Company is built on a worker
+     * thread and handed to the EDT when ready. Timings are JVM uptime, so they
+     * include class loading and JVM boot.
+     */
+    private void loadCompanyInBackground() {
+        long windowShownMs = jvmUptimeMs();
+        new SwingWorker<Company, Void>() {
+            @Override
+            protected Company doInBackground() {
+                return loadCompany();
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    company = get();
+                } catch (Exception ex) {
+                    displayArea.setText("ERROR: Company data could not be loaded: " + ex.getMessage());
+                    return;
+                }
+                companyButtons.forEach(button -> button.setEnabled(true));
+                long readyMs = jvmUptimeMs();
+                System.err.printf("[startup] window visible at %d ms, data ready at %d ms (JVM uptime)%n", windowShownMs, readyMs);
+                displayArea.setText("Welcome to the HR Payroll Management System! ✨\n" +
+                                    "(Test data with Departments has been loaded.)\n\n" +
+                                    "Please select an option from the menu on the left.\n\n" +
+                                    String.format("(Startup: window in %d ms, ready in %d ms.)", windowShownMs, readyMs));
+            }
+        }.execute();
+    }
 
-        loadTestData();
-        displayArea.setText("Welcome to the HR Payroll Management System! ✨\n" +
-                            "(Test data with Departments has been loaded.)\n\n" +
-                            "Please select an option from the menu on the left.");
+    private static long jvmUptimeMs() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
     }
 
     private void initUI() {
@@ -107,15 +102,24 @@ public class CompanyPayrollGUI extends JFrame {
 
         JButton btnHireFT = createStyledButton("Hire Full-Time", "OptionPane.informationIcon");
         JButton btnHirePT = createStyledButton("Hire Part-Time", "OptionPane.informationIcon");
+        JButton btnMergeDepts = createStyledButton("Merge Departments", "FileChooser.newFolderIcon");
         JButton btnViewAll = createStyledButton("View All Employees", "Tree.openIcon");
         JButton btnSearch = createStyledButton("Search by ID", "FileView.directoryIcon");
         JButton btnRunPayroll = createStyledButton("Run Company Payroll", "FileView.floppyDriveIcon");
         JButton btnRunDeptPayroll = createStyledButton("Run Dept. Payroll", "FileChooser.listViewIcon"); // NEW BUTTON
         JButton btnRunEOY = createStyledButton("Run EOY Reports", "FileChooser.detailsViewIcon");
+        JButton btnRecordTraining = createStyledButton("Record Training", "FileChooser.upFolderIcon");
+        JButton btnExport = createStyledButton("Export Payroll", "FileView.hardDriveIcon");
+        JButton btnSchedule = createStyledButton("Payroll Schedule", "FileChooser.homeFolderIcon");
         JButton btnExit = createStyledButton("Exit", "OptionPane.errorIcon");
 
+        companyButtons.addAll(List.of(btnHireFT, btnHirePT, btnMergeDepts, btnViewAll, btnSearch,
+                btnRunPayroll, btnRunDeptPayroll, btnRunEOY, btnRecordTraining, btnExport, btnSchedule));
+        companyButtons.forEach(button -> button.setEnabled(false));
+
         buttonPanel.add(btnHireFT);
         buttonPanel.add(btnHirePT);
+        buttonPanel.add(btnMergeDepts);
         buttonPanel.add(new JSeparator());
         buttonPanel.add(btnViewAll);
         buttonPanel.add(btnSearch);
@@ -123,6 +127,9 @@ public class CompanyPayrollGUI extends JFrame {
         buttonPanel.add(btnRunPayroll);
         buttonPanel.add(btnRunDeptPayroll); // Add new button to panel
         buttonPanel.add(btnRunEOY);
+        buttonPanel.add(btnRecordTraining);
+        buttonPanel.add(btnExport);
+        buttonPanel.add(btnSchedule);
         buttonPanel.add(new JSeparator());
         buttonPanel.add(btnExit);
 
@@ -140,11 +147,15 @@ public class CompanyPayrollGUI extends JFrame {
         // --- Action Listeners ---
         btnHireFT.addActionListener(e -> hireEmployee(EmployeeType.FULL_TIME_SALARIED));
         btnHirePT.addActionListener(e -> hireEmployee(EmployeeType.PART_TIME_HOURLY));
+        btnMergeDepts.addActionListener(e -> mergeDepartments());
         btnViewAll.addActionListener(e -> displayArea.setText(company.getAllEmployeesDetailsAsString()));
         btnSearch.addActionListener(e -> searchForEmployee());
         btnRunPayroll.addActionListener(e -> runCompanyPayroll());
         btnRunDeptPayroll.addActionListener(e -> runDepartmentPayroll()); // New action
         btnRunEOY.addActionListener(e -> displayArea.setText(company.runEndOfYearReportsAsString()));
+        btnRecordTraining.addActionListener(e -> recordTraining());
+        btnExport.addActionListener(e -> exportPayroll());
+        btnSchedule.addActionListener(e -> schedulePayrollRuns());
         btnExit.addActionListener(e -> System.exit(0));
     }
     
@@ -159,8 +170,12 @@ public class CompanyPayrollGUI extends JFrame {
         return button;
     }
 
-    private void loadTestData() {
-        displayArea.append("(Loading test data...)\n");
+    /**
+     * Builds the Company the GUI starts with: the built-in test data, as before.
+     * Runs OFF the EDT, so it must not touch Swing. There is no persisted dataset yet.
+     */
+    private static Company loadCompany() {
+        Company company = new Company();
         Department sales = new Department("S1", "Sales");
         Department engineering = new Department("E1", "Engineering");
         Department marketing = new Department("M1", "Marketing");
@@ -174,6 +189,7 @@ public class CompanyPayrollGUI extends JFrame {
         company.hireEmployee(new FullTimeEmployee("Carla", "Diaz", 95000.0, engineering));
         company.hireEmployee(new FullTimeEmployee("David", "Lee", 78000.0, sales));
         company.hireEmployee(new PartTimeEmployee("Eve", "Brown", 25.00, marketing));
+        return company;
     }
 
     /**
@@ -238,6 +254,33 @@ public class CompanyPayrollGUI extends JFrame {
         }
     }
     
+    /**
+     * REORG: Moves everyone from one department into another and removes the first one.
+     */
+    private void mergeDepartments() {
+        ArrayList<Department> depts = company.getAvailableDepartments();
+        if (depts.size() < 2) {
+            JOptionPane.showMessageDialog(this, "At least two departments are needed to merge.", "Merge Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        Department from = (Department) JOptionPane.showInputDialog(
+                this, "Department to merge (will be removed):", "Step 1: Merge From",
+                JOptionPane.PLAIN_MESSAGE, null, depts.toArray(), depts.get(0));
+        if (from == null) return; // User cancelled
+
+        ArrayList<Department> targets = new ArrayList<>(depts);
+        targets.remove(from);
+        Department into = (Department) JOptionPane.showInputDialog(
+                this, "Merge " + from.getDeptName() + " into:", "Step 2: Merge Into",
+                JOptionPane.PLAIN_MESSAGE, null, targets.toArray(), targets.get(0));
+        if (into == null) return;
+
+        int moved = company.mergeDepartments(from, into);
+        displayArea.setText(String.format("REORG SUCCESS: %s merged into %s (%d employee(s) moved).%n%n",
+                from.getDeptName(), into.getDeptName(), moved) + company.generateDepartmentPayrollReportAsString());
+    }
+
     private void searchForEmployee(){
         String id = JOptionPane.showInputDialog(this, "Enter Employee ID to search (e.g., F101):");
         if(id != null && !id.trim().isEmpty()){
@@ -252,7 +295,7 @@ public class CompanyPayrollGUI extends JFrame {
     
     private void runCompanyPayroll(){
         // Update hours first for an accurate report
-        boolean success = company.updateAllPartTimeHoursGUI(this);
+        boolean success = updateAllPartTimeHours();
         if (success) {
             displayArea.setText(company.generatePayrollReportAsString());
         } else {
@@ -262,7 +305,7 @@ public class CompanyPayrollGUI extends JFrame {
 
     private void runDepartmentPayroll() {
         // Also update hours first for this report
-        boolean success = company.updateAllPartTimeHoursGUI(this);
+        boolean success = updateAllPartTimeHours();
         if (success) {
             displayArea.setText(company.generateDepartmentPayrollReportAsString());
         } else {
@@ -270,197 +313,194 @@ public class CompanyPayrollGUI extends JFrame {
         }
     }
     
-    public static void main(String[] args) {
-        try {
-            UIManager.setLookAndFeel("javax.swing.plaf.nimbus.NimbusLookAndFeel");
-        } catch (Exception e) {
-            System.err.println("Nimbus look and feel not found. Using default.");
+    /**
+     * Asks for this week's hours for every part-time employee.
+     * @return false if the user cancelled
+     */
+    private boolean updateAllPartTimeHours() {
+        List<PartTimeEmployee> partTimers = company.getPartTimeEmployees();
+        if (partTimers.isEmpty()){
+             JOptionPane.showMessageDialog(this, "No part-time employees found to update.", "Info", JOptionPane.INFORMATION_MESSAGE);
+             return true;
         }
-
-        SwingUtilities.invokeLater(() -> new CompanyPayrollGUI().setVisible(true));
-    }
-}
-
-
-/*
- * ===================================================================
- * BACKEND LOGIC CLASSES (Refactored for GUI and Composition)
- * ===================================================================
- */
-
-abstract class Employee {
-    private static int employeeCounter = 101;
-    private String employeeID;
-    private String firstName;
-    private String lastName;
-    private EmployeeType type;
-    private Department workingDept; // COMPOSITION: Employee "has-a" Department
-
-    public Employee(String firstName, String lastName, String idPrefix, EmployeeType type, Department workingDept) {
-        this.firstName = firstName;
-        this.lastName = lastName;
-        this.type = type;
-        this.workingDept = workingDept;
-        this.employeeID = idPrefix + employeeCounter++;
+        for (PartTimeEmployee ptEmp : partTimers) {
+            String input = JOptionPane.showInputDialog(this, "Enter hours for " + ptEmp.getFullName() + ":", "Update Hours", JOptionPane.QUESTION_MESSAGE);
+            if (input == null) return false; // User cancelled
+            try {
+                int hours = Integer.parseInt(input);
+                if (hours < 0) throw new NumberFormatException("Negative hours not allowed.");
+                company.setHoursWorked(ptEmp, hours);
+            } catch (NumberFormatException e) {
+                JOptionPane.showMessageDialog(this, "Invalid number. Please try again.", "Input Error", JOptionPane.ERROR_MESSAGE);
+                return updateAllPartTimeHours(); // Recursive call to retry
+            }
+        }
+        return true;
     }
 
-    public String getEmployeeID() { return employeeID; }
-    public String getFullName() { return firstName + " " + lastName; }
-    public EmployeeType getEmployeeType() { return this.type; }
-    public Department getWorkingDept() { return this.workingDept; }
-
-    public abstract double calculateWeeklyPay();
-
-    public String getDetailsAsString() {
-        return "------------------------------\n" +
-               String.format(" ID:         %s\n", this.employeeID) +
-               String.format(" Name:       %s\n", getFullName()) +
-               String.format(" Type:       %s\n", this.type) +
-               String.format(" Department: %s (ID: %s)\n", workingDept.getDeptName(), workingDept.getDeptId());
+    /**
+     * TRAINING: Appends the training records to the compliance log after the user
+     * confirms. Kept apart from the EOY report so that viewing it never writes.
+     */
+    private void recordTraining() {
+        int answer = JOptionPane.showConfirmDialog(this,
+                "Record this year's mandatory training for all part-time employees?\n"
+                        + "Every confirmation appends a new run to the compliance log.",
+                "Record Training", JOptionPane.OK_CANCEL_OPTION, JOptionPane.QUESTION_MESSAGE);
+        if (answer != JOptionPane.OK_OPTION) return;
+        try {
+            int written = company.recordEndOfYearTraining();
+            displayArea.setText(written == 0
+                    ? "No employees require training; nothing was recorded."
+                    : String.format("%d training record(s) appended to the compliance log as run %s.",
+                            written, company.getLastTrainingRunId()));
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this, "Training records could not be saved: " + ex.getMessage(),
+                    "Record Training", JOptionPane.ERROR_MESSAGE);
+        }
     }
-}
 
-class FullTimeEmployee extends Employee implements BonusPayable {
-    private double annualSalary;
+    /**
+     * SCHEDULING: The first click sets up weekly company and per-department runs;
+     * later clicks show the job metrics. Reports are saved under scheduled_reports/.
+     */
+    private void schedulePayrollRuns() {
+        if (scheduler.hasJobs()) {
+            displayArea.setText("--- SCHEDULED PAYROLL RUNS ---\n\n" + scheduler.getStatusAsString());
+            return;
+        }
 
-    public FullTimeEmployee(String firstName, String lastName, double annualSalary, Department workingDept) {
-        super(firstName, lastName, "F", EmployeeType.FULL_TIME_SALARIED, workingDept);
-        this.annualSalary = annualSalary;
-    }
+        DayOfWeek day = (DayOfWeek) JOptionPane.showInputDialog(this, "Run payroll every:", "Schedule Payroll",
+                JOptionPane.PLAIN_MESSAGE, null, DayOfWeek.values(), DayOfWeek.FRIDAY);
+        if (day == null) return; // User cancelled
+        String timeInput = JOptionPane.showInputDialog(this, "At what time? (HH:mm)", "17:00");
+        if (timeInput == null) return;
 
-    @Override public double calculateWeeklyPay() { return this.annualSalary / 52.0; }
-    @Override public double calculateAnnualBonus() { return this.annualSalary * BonusPayable.BONUS_RATE; }
+        LocalTime time;
+        try {
+            time = LocalTime.parse(timeInput.trim());
+        } catch (DateTimeParseException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid time: " + timeInput, "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
 
-    @Override
-    public String getDetailsAsString() {
-        return super.getDetailsAsString() +
-               String.format(" Annual Salary: $%,.2f%n", this.annualSalary) +
-               String.format(" Weekly Pay:    $%,.2f%n", calculateWeeklyPay()) +
-               String.format(" Annual Bonus:  $%,.2f%n", calculateAnnualBonus()) +
-               "------------------------------\n";
+        Company scheduledCompany = company;
+        scheduler.scheduleWeekly("Company payroll", day, time,
+                () -> saveReport(SCHEDULED_REPORTS_DIR, "company", callOnEdt(scheduledCompany::snapshot).renderCompanyPayroll()));
+        // The department jobs follow the company: new departments get a job, merged ones lose theirs
+        scheduledCompany.addChangeListener(batch -> {
+            for (CompanyEvent event : batch) {
+                if (event.getType() == CompanyEvent.Type.DEPARTMENT_ADDED) {
+                    scheduleDepartmentRun(scheduledCompany, event.getDepartment(), day, time);
+                } else if (event.getType() == CompanyEvent.Type.DEPARTMENT_REMOVED) {
+                    scheduler.cancel(departmentJobName(event.getDepartment()));
+                } else if (event.getType() == CompanyEvent.Type.EVENTS_DROPPED) {
+                    SwingUtilities.invokeLater(() -> resyncDepartmentRuns(scheduledCompany, day, time));
+                }
+            }
+        });
+        for (Department dept : scheduledCompany.getAvailableDepartments()) {
+            scheduleDepartmentRun(scheduledCompany, dept, day, time);
+        }
+        displayArea.setText("--- SCHEDULED PAYROLL RUNS ---\n\n" + scheduler.getStatusAsString());
     }
-}
 
-class PartTimeEmployee extends Employee implements TrainingRequired {
-    private double hourlyRate;
-    private int hoursWorkedThisWeek;
-
-    public PartTimeEmployee(String firstName, String lastName, double hourlyRate, Department workingDept) {
-        super(firstName, lastName, "P", EmployeeType.PART_TIME_HOURLY, workingDept);
-        this.hourlyRate = hourlyRate;
-        this.hoursWorkedThisWeek = 0;
+    /** Safe to call from the event dispatcher thread: it only registers the job. */
+    private void scheduleDepartmentRun(Company scheduledCompany, Department dept, DayOfWeek day, LocalTime time) {
+        scheduler.scheduleWeekly(departmentJobName(dept), day, time,
+                () -> saveReport(SCHEDULED_REPORTS_DIR, "dept-" + dept.getDeptId(),
+                        callOnEdt(() -> scheduledCompany.snapshot(dept)).renderDepartmentReport(dept)));
     }
 
-    public void setHoursWorked(int hours) { this.hoursWorkedThisWeek = hours; }
-    @Override public double calculateWeeklyPay() { return this.hourlyRate * this.hoursWorkedThisWeek; }
-    @Override public void attendMandatoryTraining() {}
-    public String getTrainingLogMessage() { return String.format("TRAINING LOGGED: %s has attended mandatory training.", getFullName()); }
-
-    @Override
-    public String getDetailsAsString() {
-        String details = super.getDetailsAsString() +
-                         String.format(" Hourly Rate:   $%.2f%n", this.hourlyRate);
-        if (this.hoursWorkedThisWeek > 0) {
-            details += String.format(" Last Pay Calc: $%.2f (%d hours)%n", calculateWeeklyPay(), this.hoursWorkedThisWeek);
+    /** Some change events were lost: rebuild the department jobs from the Company itself (EDT only). */
+    private void resyncDepartmentRuns(Company scheduledCompany, DayOfWeek day, LocalTime time) {
+        Set<String> current = new HashSet<>();
+        for (Department dept : scheduledCompany.getAvailableDepartments()) {
+            current.add(departmentJobName(dept));
+            scheduleDepartmentRun(scheduledCompany, dept, day, time); // No-op if the job exists
+        }
+        for (String jobName : scheduler.getJobNames()) {
+            if (jobName.startsWith(DEPARTMENT_JOB_PREFIX) && !current.contains(jobName)) scheduler.cancel(jobName);
         }
-        return details + "------------------------------\n";
     }
-}
 
-class Company {
-    private ArrayList<Employee> allEmployeesList = new ArrayList<>();
-    private ArrayList<Department> allDepartmentsList = new ArrayList<>();
-
-    public String hireEmployee(Employee employee) {
-        this.allEmployeesList.add(employee);
-        return String.format("HIRE SUCCESS: %s (%s) has been hired into %s.",
-            employee.getFullName(), employee.getEmployeeID(), employee.getWorkingDept().getDeptName());
+    private static String departmentJobName(Department dept) {
+        return DEPARTMENT_JOB_PREFIX + dept.getDeptName() + " [" + dept.getDeptId() + "]"; // IDs keep equal names apart
     }
 
-    public void addDepartment(Department dept) { this.allDepartmentsList.add(dept); }
-    public Employee findEmployeeByID(String id) {
-        return allEmployeesList.stream().filter(e -> e.getEmployeeID().equalsIgnoreCase(id)).findFirst().orElse(null);
-    }
-    public ArrayList<Department> getAvailableDepartments() { return this.allDepartmentsList; }
-
-    public String getAllEmployeesDetailsAsString() {
-        if (allEmployeesList.isEmpty()) return "No employees have been hired yet.";
-        StringBuilder sb = new StringBuilder("--- ALL EMPLOYEES IN COMPANY ---\n\n");
-        allEmployeesList.forEach(emp -> sb.append(emp.getDetailsAsString()).append("\n"));
-        sb.append("--- END OF LIST ---");
-        return sb.toString();
-    }
-    
-    public boolean updateAllPartTimeHoursGUI(Component parent) {
-        ArrayList<PartTimeEmployee> partTimers = new ArrayList<>();
-        allEmployeesList.stream().filter(e -> e instanceof PartTimeEmployee).forEach(e -> partTimers.add((PartTimeEmployee)e));
-        if (partTimers.isEmpty()){
-             JOptionPane.showMessageDialog(parent, "No part-time employees found to update.", "Info", JOptionPane.INFORMATION_MESSAGE);
-             return true;
-        }
-        for (PartTimeEmployee ptEmp : partTimers) {
-            String input = JOptionPane.showInputDialog(parent, "Enter hours for " + ptEmp.getFullName() + ":", "Update Hours", JOptionPane.QUESTION_MESSAGE);
-            if (input == null) return false; // User cancelled
-            try {
-                int hours = Integer.parseInt(input);
-                if (hours < 0) throw new NumberFormatException("Negative hours not allowed.");
-                ptEmp.setHoursWorked(hours);
-            } catch (NumberFormatException e) {
-                JOptionPane.showMessageDialog(parent, "Invalid number. Please try again.", "Input Error", JOptionPane.ERROR_MESSAGE);
-                return updateAllPartTimeHoursGUI(parent); // Recursive call to retry
-            }
+    /**
+     * Company is only touched on the EDT. Background jobs only take their snapshot
+     * there and render the report on their own thread, so the UI stays responsive.
+     */
+    private static <T> T callOnEdt(Callable<T> work) throws Exception {
+        FutureTask<T> task = new FutureTask<>(work);
+        SwingUtilities.invokeLater(task);
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            // Report the EDT failure itself, e.g. a department that is no longer part of the company
+            if (e.getCause() instanceof Exception) throw (Exception) e.getCause();
+            throw e;
         }
-        return true;
     }
 
-    public String generatePayrollReportAsString() {
-        StringBuilder sb = new StringBuilder("--- WEEKLY COMPANY-WIDE PAYROLL REPORT ---\n\n");
-        double totalPayroll = allEmployeesList.stream().mapToDouble(Employee::calculateWeeklyPay).sum();
-        allEmployeesList.forEach(emp -> sb.append(String.format("PAYING: %-20s (%s, %-12s) --- $%,.2f%n",
-                emp.getFullName(), emp.getEmployeeID(), emp.getWorkingDept().getDeptName(), emp.calculateWeeklyPay())));
-        sb.append("\n---------------------------------------------------------------------\n");
-        sb.append(String.format("TOTAL COMPANY PAYROLL: $%,.2f%n", totalPayroll));
-        return sb.toString();
+    private static Path saveReport(Path directory, String name, String report) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve(name + "-" + LocalDate.now() + ".txt");
+        return Files.writeString(file, report);
     }
 
-    public String generateDepartmentPayrollReportAsString() {
-        StringBuilder sb = new StringBuilder("--- WEEKLY PAYROLL REPORT BY DEPARTMENT ---\n");
-        double grandTotal = 0.0;
-        for (Department dept : allDepartmentsList) {
-            sb.append(String.format("%n=== DEPARTMENT: %s ===%n", dept.getDeptName().toUpperCase()));
-            double deptSubtotal = 0.0;
-            boolean found = false;
-            for (Employee emp : allEmployeesList) {
-                if (emp.getWorkingDept().equals(dept)) {
-                    found = true;
-                    double pay = emp.calculateWeeklyPay();
-                    sb.append(String.format("  PAYING: %-20s (%s) --- $%,.2f%n", emp.getFullName(), emp.getEmployeeID(), pay));
-                    deptSubtotal += pay;
-                }
+    private void exportPayroll() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Select a folder for the payroll export");
+        chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return; // User cancelled
+
+        // The files are written from a detached snapshot so that large exports do not freeze the window
+        Path directory = chooser.getSelectedFile().toPath();
+        PayrollSnapshot snapshot = company.snapshot();
+        displayArea.setText("Exporting payroll to " + directory + " ...");
+        new SwingWorker<String, Void>() {
+            @Override
+            protected String doInBackground() throws IOException {
+                return snapshot.export(directory);
             }
-            if (!found) {
-                sb.append("  No employees processed for this department.\n");
-            } else {
-                sb.append(String.format("  --- DEPARTMENT SUBTOTAL: $%,.2f ---%n", deptSubtotal));
-                grandTotal += deptSubtotal;
+
+            @Override
+            protected void done() {
+                try {
+                    displayArea.setText(get());
+                } catch (InterruptedException | ExecutionException ex) {
+                    Throwable cause = ex instanceof ExecutionException ? ex.getCause() : ex;
+                    displayArea.setText("Export failed.");
+                    JOptionPane.showMessageDialog(CompanyPayrollGUI.this, "Export failed: " + cause.getMessage(),
+                            "Export Error", JOptionPane.ERROR_MESSAGE);
+                }
             }
-        }
-        sb.append("\n=============================================\n");
-        sb.append(String.format("GRAND TOTAL (ALL DEPTS): $%,.2f%n", grandTotal));
-        return sb.toString();
+        }.execute();
     }
-    
-    public String runEndOfYearReportsAsString() {
-        StringBuilder sb = new StringBuilder("--- END-OF-YEAR BONUS & TRAINING REPORT ---\n\n");
-        for (Employee emp : allEmployeesList) {
-            if (emp instanceof BonusPayable) {
-                sb.append(String.format("BONUS: %s (%s, %s) earned $%,.2f%n",
-                        emp.getFullName(), emp.getEmployeeID(), emp.getWorkingDept().getDeptName(), ((BonusPayable) emp).calculateAnnualBonus()));
-            }
-            if (emp instanceof TrainingRequired) {
-                sb.append(((PartTimeEmployee)emp).getTrainingLogMessage()).append("\n");
-            }
+
+    /**
+     * For faster cold starts, create a class-data-sharing archive once and reuse it.
+     * AppCDS only archives classes loaded from jar files, not from a class directory:
+     *   javac -encoding UTF-8 -d classes *.java
+     *   jar --create --file payroll.jar -C classes .
+     *   java -XX:ArchiveClassesAtExit=payroll.jsa -cp payroll.jar CompanyPayrollGUI   (start, then exit)
+     *   java -XX:SharedArchiveFile=payroll.jsa -cp payroll.jar CompanyPayrollGUI
+     * Rebuild the archive whenever the jar changes. Compare the "[startup]" line
+     * printed on stderr with and without the archive.
+     */
+    public static void main(String[] args) {
+        try {
+            UIManager.setLookAndFeel("javax.swing.plaf.nimbus.NimbusLookAndFeel");
+        } catch (Exception e) {
+            System.err.println("Nimbus look and feel not found. Using default.");
         }
-        return sb.toString();
+
+        SwingUtilities.invokeLater(() -> {
+            CompanyPayrollGUI gui = new CompanyPayrollGUI();
+            gui.setVisible(true);
+            gui.loadCompanyInBackground();
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+/*
+ * ===================================================================
+ * CLASS: Department (Data Model)
+ * ===================================================================
+ * Represents a working department (Composition).
+ */
+class Department {
+    private String deptId;
+    private String deptName;
+
+    public Department(String deptId, String deptName) {
+        this.deptId = deptId;
+        this.deptName = deptName;
+    }
+
+    public String getDeptId() { return deptId; }
+    public String getDeptName() { return deptName; }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        Department that = (Department) obj;
+        return deptId.equals(that.deptId);
+    }
+
+    @Override
+    public int hashCode() {
+        return deptId.hashCode();
+    }
+
+    /**
+     * IMPORTANT: Overriding toString() allows the object to be displayed
+     * correctly in Swing components like JComboBox (dropdown menus).
+     */
+    @Override
+    public String toString() {
+        return this.deptName; // Display the department name in UI components
+    }
+}
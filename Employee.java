@@ -0,0 +1,65 @@
+/*
+ * ===================================================================
+ * CLASS: Employee (Abstract Base Class)
+ * ===================================================================
+ * Employee "has-a" Department (Composition).
+ */
+abstract class Employee {
+    private static int employeeCounter = 101;
+    private long packedId; // See EmployeeIds: prefix letter + sequence, no String per employee
+    private String firstName;
+    private String lastName;
+    private EmployeeType type;
+    private Department workingDept; // COMPOSITION: Employee "has-a" Department
+
+    private int payrollRow = -1; // Row in the owning Company's PayrollColumns, -1 until hired
+
+    // MEMOIZED: built on first use, reused by every report line until the inputs change
+    private String fullName;
+    private String details;
+
+    public Employee(String firstName, String lastName, String idPrefix, EmployeeType type, Department workingDept) {
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.type = type;
+        this.workingDept = workingDept;
+        this.packedId = EmployeeIds.pack(idPrefix.charAt(0), employeeCounter++);
+    }
+
+    public String getEmployeeID() { return EmployeeIds.format(packedId); }
+    public long getPackedId() { return packedId; }
+    public String getFullName() {
+        if (fullName == null) fullName = firstName + " " + lastName;
+        return fullName;
+    }
+    public EmployeeType getEmployeeType() { return this.type; }
+    public Department getWorkingDept() { return this.workingDept; }
+
+    /** Package-private: only Company reassigns departments, so its indexes stay in sync. */
+    void setWorkingDept(Department workingDept) {
+        this.workingDept = workingDept;
+        invalidateDetails(); // Details show the department
+    }
+
+    /** Package-private: set by Company on hire. */
+    int getPayrollRow() { return payrollRow; }
+    void setPayrollRow(int payrollRow) { this.payrollRow = payrollRow; }
+
+    public abstract double calculateWeeklyPay();
+
+    public String getDetailsAsString() {
+        if (details == null) details = renderDetails();
+        return details;
+    }
+
+    /** Call when a field shown by renderDetails() changes. */
+    protected void invalidateDetails() { this.details = null; }
+
+    protected String renderDetails() {
+        return "------------------------------\n" +
+               String.format(" ID:         %s\n", getEmployeeID()) +
+               String.format(" Name:       %s\n", getFullName()) +
+               String.format(" Type:       %s\n", this.type) +
+               String.format(" Department: %s (ID: %s)\n", workingDept.getDeptName(), workingDept.getDeptId());
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * ===================================================================
+ * CLASS: EmployeeIds (Packed Employee IDs)
+ * ===================================================================
+ * An employee ID such as "F101" is stored as one long: the upper-case
+ * prefix letter in the top 16 bits and the sequence number below it.
+ * Parsing is case-insensitive and allocation-free, so user input is
+ * converted once at the API boundary and then compared as a number.
+ */
+final class EmployeeIds {
+    private static final int PREFIX_SHIFT = 48;
+    private static final long SEQUENCE_MASK = (1L << PREFIX_SHIFT) - 1;
+    private static final int MAX_DIGITS = 14; // 10^14 < 2^48
+
+    /** Returned by parse() for text that is not a valid ID. */
+    static final long INVALID = -1L;
+
+    private EmployeeIds() {}
+
+    public static long pack(char prefix, long sequence) {
+        if (!isAsciiLetter(prefix) || sequence < 0 || sequence > SEQUENCE_MASK) {
+            throw new IllegalArgumentException("Cannot pack employee ID " + prefix + sequence);
+        }
+        return ((long) Character.toUpperCase(prefix) << PREFIX_SHIFT) | sequence;
+    }
+
+    /**
+     * Parses "F101" or "f101"; returns INVALID for anything else, including
+     * leading zeros ("F0101"), so every ID has exactly one spelling.
+     */
+    public static long parse(CharSequence id) {
+        int length = id.length();
+        if (length < 2 || length > MAX_DIGITS + 1 || !isAsciiLetter(id.charAt(0))) return INVALID;
+        if (id.charAt(1) == '0' && length > 2) return INVALID;
+        long sequence = 0;
+        for (int i = 1; i < length; i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9') return INVALID;
+            sequence = sequence * 10 + (c - '0');
+        }
+        return pack(id.charAt(0), sequence);
+    }
+
+    public static char prefix(long packedId) { return (char) (packedId >>> PREFIX_SHIFT); }
+    public static long sequence(long packedId) { return packedId & SEQUENCE_MASK; }
+
+    public static String format(long packedId) {
+        return prefix(packedId) + Long.toString(sequence(packedId));
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+}
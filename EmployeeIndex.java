@@ -0,0 +1,64 @@
+/*
+ * ===================================================================
+ * CLASS: EmployeeIndex (ID -> Employee Lookup)
+ * ===================================================================
+ * Open-addressing hash table keyed by packed IDs: two flat arrays and
+ * linear probing, so there is no per-entry node object and a lookup
+ * allocates nothing. Employees are never removed, so no tombstones.
+ */
+class EmployeeIndex {
+    private static final long EMPTY = 0L; // Packed IDs always have a non-zero prefix
+
+    private long[] keys;
+    private Employee[] values;
+    private int size;
+
+    EmployeeIndex() {
+        this.keys = new long[16];
+        this.values = new Employee[16];
+    }
+
+    /** Adds or replaces the employee stored under its packed ID. */
+    public void put(Employee employee) {
+        if ((size + 1) * 2 > keys.length) resize(keys.length * 2); // Load factor <= 0.5
+        long key = employee.getPackedId();
+        int slot = find(keys, key);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = employee;
+    }
+
+    /** @return the employee, or null if the key is not in the index */
+    public Employee get(long key) {
+        if (key == EMPTY || key == EmployeeIds.INVALID) return null;
+        int slot = find(keys, key);
+        return values[slot]; // null when the probe stopped at an empty slot
+    }
+
+    public int size() { return size; }
+
+    private static int find(long[] keys, long key) {
+        int mask = keys.length - 1;
+        int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask; // Fibonacci hashing spreads sequential IDs
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Employee[] oldValues = values;
+        keys = new long[capacity];
+        values = new Employee[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = find(keys, oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -1,75 +1,53 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Scanner;
 
-/*
- * ===================================================================
- * OOP CONCEPTS: Enums and Interfaces
- * ===================================================================
- */
-enum EmployeeType {
-    FULL_TIME_SALARIED,
-    PART_TIME_HOURLY
-}
-
-interface BonusPayable {
-    double BONUS_RATE = 0.05; 
-    double calculateAnnualBonus();
-}
-
-interface TrainingRequired {
-    void attendMandatoryTraining();
-}
-
-/* * ===================================================================
- * NEW CLASS: Department (Data Model)
- * ===================================================================
- * Represents a working department (Composition).
- */
-class Department {
-    private String deptId;
-    private String deptName;
-
-    public Department(String deptId, String deptName) {
-        this.deptId = deptId;
-        this.deptName = deptName;
-    }
-
-    public String getDeptId() { return deptId; }
-    public String getDeptName() { return deptName; }
-
-    @Override
-    public boolean equals(Object obj) {
-        if (this == obj) return true;
-        if (obj == null || getClass() != obj.getClass()) return false;
-        Department that = (Department) obj;
-        return deptId.equals(that.deptId);
-    }
-
-    @Override
-    public int hashCode() {
-        return deptId.hashCode();
-    }
-}
-
-
 /*
  * ===================================================================
  * FILE: EmployeePayrollSystem.java (Main Public Class)
  * ===================================================================
+ * Console front end. All payroll logic and report text live in the
+ * shared engine (Company and the model classes); this class only reads
+ * input and prints results. Build with: javac -encoding UTF-8 *.java
+ *   java EmployeePayrollSystem [--no-test-data] [--shards host:port,...]
+ * With --shards, the department payroll (menu 7) sums are computed by
+ * running PayrollShardServer processes instead of this JVM.
  */
 public class EmployeePayrollSystem {
 
     private static Company company = new Company();
     private static Scanner scanner = new Scanner(System.in);
 
+    // Report text goes to the buffered channel and is flushed once per report
+    private static final PrintWriter out = ReportOutput.out();
+
+    private static List<InetSocketAddress> shardAddresses = Collections.emptyList();
+
     public static void main(String[] args) {
+        try {
+            shardAddresses = parseShardAddresses(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return;
+        }
         System.out.println("Welcome to the HR Payroll Management System v5.0.");
-        loadTestData(); 
+        if (!Arrays.asList(args).contains("--no-test-data")) {
+            loadTestData(); 
+        }
         boolean running = true;
 
         while (running) {
             printMenu();
-            int choice = getIntInput("Please enter your choice (1-8): ", scanner);
+            int choice = getIntInput("Please enter your choice (1-10): ", scanner);
 
             switch (choice) {
                 case 1:
@@ -82,23 +60,29 @@ public class EmployeePayrollSystem {
                     searchForEmployee();
                     break;
                 case 4:
-                    company.updateAllPartTimeHours(scanner);
-                    company.generatePayrollReport();
+                    updateAllPartTimeHours();
+                    printReport("\n" + company.generatePayrollReportAsString());
                     break;
                 case 5:
-                    company.runEndOfYearReports();
+                    runEndOfYearReports();
                     break;
                 case 6: 
-                    company.displayAllEmployees();
+                    printReport("\n" + company.getAllEmployeesDetailsAsString());
                     break;
                 case 7: 
-                    company.generateDepartmentPayrollReport();
+                    printReport("\n" + departmentPayrollReport());
+                    break;
+                case 8:
+                    runWhatIfScenario();
+                    break;
+                case 9:
+                    generatePayslips();
                     break;
-                case 8: 
+                case 10: 
                     running = false;
                     break;
                 default:
-                    System.out.println("Invalid choice. Please select 1-8.");
+                    System.out.println("Invalid choice. Please select 1-10.");
             }
             if (running) {
                 System.out.println("\nPress Enter to continue...");
@@ -109,6 +93,34 @@ public class EmployeePayrollSystem {
         scanner.close();
     }
 
+    /** "--shards host:port,host:port" -> addresses; empty if the option is absent. */
+    private static List<InetSocketAddress> parseShardAddresses(String[] args) {
+        int index = Arrays.asList(args).indexOf("--shards");
+        if (index < 0) return Collections.emptyList();
+        if (index + 1 >= args.length) throw new IllegalArgumentException("--shards needs host:port[,host:port...]");
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        for (String address : args[index + 1].split(",")) {
+            int colon = address.lastIndexOf(':');
+            try {
+                addresses.add(new InetSocketAddress(address.substring(0, colon), Integer.parseInt(address.substring(colon + 1))));
+            } catch (RuntimeException e) { // No colon, a bad number or a port out of range
+                throw new IllegalArgumentException("Invalid shard address '" + address + "', expected host:port");
+            }
+        }
+        return addresses;
+    }
+
+    /** Menu 7: the shards' merged sums when --shards was given, else the local running totals. */
+    private static String departmentPayrollReport() {
+        if (shardAddresses.isEmpty()) return company.generateDepartmentPayrollReportAsString();
+        try (PayrollShardClient shards = new PayrollShardClient(shardAddresses)) {
+            return company.generateDepartmentPayrollReportAsString(shards);
+        } catch (IOException e) {
+            System.out.println("Payroll shards unavailable (" + e.getMessage() + "); using local totals.");
+            return company.generateDepartmentPayrollReportAsString();
+        }
+    }
+
     public static void printMenu() {
         System.out.println("\n--- MAIN MENU ---");
         System.out.println("1. Hire Full-Time Employee");
@@ -118,7 +130,9 @@ public class EmployeePayrollSystem {
         System.out.println("5. Run End-of-Year Reports (Bonus/Training)");
         System.out.println("6. View All Employees List");
         System.out.println("7. Run Payroll by Department");
-        System.out.println("8. Exit"); 
+        System.out.println("8. Run What-If Compensation Scenario");
+        System.out.println("9. Generate Payslips");
+        System.out.println("10. Exit"); 
     }
     
     /**
@@ -132,16 +146,34 @@ public class EmployeePayrollSystem {
         Department engineering = new Department("E1", "Engineering");
         Department marketing = new Department("M1", "Marketing"); // NEW
         
-        company.addDepartment(sales);
-        company.addDepartment(engineering);
-        company.addDepartment(marketing); // NEW
+        addDepartment(sales);
+        addDepartment(engineering);
+        addDepartment(marketing); // NEW
         
         // 2. Hire Employees and assign them to a Department object (Composition)
-        company.hireEmployee(new FullTimeEmployee("Ana", "Smith", 80000.0, sales));
-        company.hireEmployee(new PartTimeEmployee("Bob", "Johnson", 22.50, engineering));
-        company.hireEmployee(new FullTimeEmployee("Carla", "Diaz", 95000.0, engineering));
-        company.hireEmployee(new FullTimeEmployee("David", "Lee", 78000.0, sales));
-        company.hireEmployee(new PartTimeEmployee("Eve", "Brown", 25.00, marketing)); // NEW
+        hireEmployee(new FullTimeEmployee("Ana", "Smith", 80000.0, sales));
+        hireEmployee(new PartTimeEmployee("Bob", "Johnson", 22.50, engineering));
+        hireEmployee(new FullTimeEmployee("Carla", "Diaz", 95000.0, engineering));
+        hireEmployee(new FullTimeEmployee("David", "Lee", 78000.0, sales));
+        hireEmployee(new PartTimeEmployee("Eve", "Brown", 25.00, marketing)); // NEW
+    }
+
+    private static void addDepartment(Department dept) {
+        company.addDepartment(dept);
+        printReport("New department created: " + dept.getDeptName());
+    }
+
+    private static void hireEmployee(Employee employee) {
+        printReport(company.hireEmployee(employee));
+    }
+
+    /**
+     * HELPER: Writes one report from the engine and flushes at the report boundary.
+     */
+    private static void printReport(String report) {
+        out.print(report);
+        if (!report.endsWith("\n")) out.println();
+        ReportOutput.flush();
     }
 
 
@@ -230,8 +262,7 @@ public class EmployeePayrollSystem {
         String last = scanner.nextLine();
         double salary = getDoubleInput("Enter Annual Salary: ", scanner);
 
-        FullTimeEmployee ftEmp = new FullTimeEmployee(first, last, salary, dept);
-        company.hireEmployee(ftEmp);
+        hireEmployee(new FullTimeEmployee(first, last, salary, dept));
     }
 
     /**
@@ -249,317 +280,153 @@ public class EmployeePayrollSystem {
         String last = scanner.nextLine();
         double rate = getDoubleInput("Enter Hourly Rate: ", scanner);
 
-        PartTimeEmployee ptEmp = new PartTimeEmployee(first, last, rate, dept);
-        company.hireEmployee(ptEmp);
+        hireEmployee(new PartTimeEmployee(first, last, rate, dept));
     }
 
-    private static void searchForEmployee() {
-        System.out.println("--- Search Employee ---");
-        System.out.print("Enter Employee ID to search (e.g., F101): ");
-        String id = scanner.nextLine();
+    /**
+     * UI HELPER: Builds one what-if scenario from user input and compares it with today's payroll.
+     */
+    private static void runWhatIfScenario() {
+        System.out.println("--- What-If Compensation Scenario ---");
+        PayrollScenario scenario = new PayrollScenario("Custom scenario");
 
-        Employee foundEmp = company.findEmployeeByID(id);
+        double bonusPercent = getDoubleInput("Bonus rate in % (currently " + (BonusPayable.BONUS_RATE * 100) + "): ", scanner);
+        scenario.withBonusRate(bonusPercent / 100.0);
 
-        if (foundEmp != null) {
-            System.out.println("--- Employee Found ---");
-            foundEmp.displayEmployeeDetails();
-        } else {
-            System.out.println("ERROR: No employee found with ID " + id);
+        double raisePercent = getDoubleInput("Department raise in % (0 for none): ", scanner);
+        if (raisePercent > 0) {
+            Department dept = selectDepartment();
+            if (dept != null) scenario.withDepartmentRaise(dept, raisePercent);
         }
-    }
-}
-
-
-/*
- * ===================================================================
- * CLASS: Employee (Abstract Base Class)
- * ===================================================================
- * Contains the composition field for Department.
- */
-abstract class Employee {
-
-    private static int employeeCounter = 101; 
-    private String employeeID;
-    private String firstName;
-    private String lastName;
-    private EmployeeType type; 
-    
-    // COMPOSITION: Employee "has-a" Department.
-    private Department workingDept; 
-
-    // Constructor requires the Department object
-    public Employee(String firstName, String lastName, String idPrefix, EmployeeType type, Department workingDept) {
-        this.firstName = firstName;
-        this.lastName = lastName;
-        this.type = type;
-        this.workingDept = workingDept; // Assign the department object
-        
-        this.employeeID = idPrefix + employeeCounter; 
-        employeeCounter++;
-    }
-
-    // --- Getters ---
-    public String getEmployeeID() { return employeeID; }
-    public String getFullName() { return firstName + " " + lastName; }
-    public EmployeeType getEmployeeType() { return this.type; }
-    public Department getWorkingDept() { return this.workingDept; } // Getter for the composite object
-
-    public abstract double calculateWeeklyPay();
-
-    // displays info from this class AND its composite object
-    public void displayEmployeeDetails() {
-        System.out.println("\n------------------------------");
-        System.out.println("ID: " + this.employeeID);
-        System.out.println("Name: " + getFullName());
-        System.out.println("Type: " + this.type);
-        System.out.println("Department: " + workingDept.getDeptName() + " (ID: " + workingDept.getDeptId() + ")");
-    }
-}
 
+        int hoursCap = getIntInput("Cap part-time hours at (0 for no cap): ", scanner);
+        if (hoursCap > 0) scenario.withPartTimeHoursCap(hoursCap);
 
-/*
- * ===================================================================
- * CLASS: FullTimeEmployee (Derived Class)
- * ===================================================================
- * Implements BonusPayable. Constructor passes Department up to parent.
- */
-class FullTimeEmployee extends Employee implements BonusPayable {
-
-    private double annualSalary;
-
-    public FullTimeEmployee(String firstName, String lastName, double annualSalary, Department workingDept) {
-        super(firstName, lastName, "F", EmployeeType.FULL_TIME_SALARIED, workingDept); 
-        this.annualSalary = annualSalary;
-    }
-
-    @Override
-    public double calculateWeeklyPay() {
-        return this.annualSalary / 52.0; 
-    }
-
-    @Override
-    public double calculateAnnualBonus() {
-        return this.annualSalary * BonusPayable.BONUS_RATE; 
+        printReport("\n" + company.generateScenarioReportAsString(scenario));
     }
 
-    @Override
-    public void displayEmployeeDetails() {
-        super.displayEmployeeDetails(); 
-        System.out.printf("Annual Salary: $%,.2f%n", this.annualSalary);
-        System.out.printf("Weekly Pay: $%,.2f%n", calculateWeeklyPay());
-        System.out.printf("Calculated Bonus: $%,.2f%n", calculateAnnualBonus());
-        System.out.println("------------------------------");
+    /**
+     * UI HELPER: Asks for the payslip format and writes one file per employee.
+     */
+    private static void generatePayslips() {
+        System.out.println("--- Generate Payslips ---");
+        System.out.println("  1. Plain text");
+        System.out.println("  2. HTML");
+        int format = 0;
+        while (format != 1 && format != 2) {
+            format = getIntInput("Enter selection (1-2): ", scanner);
+        }
+        Path directory = Paths.get("payslips");
+        long start = System.nanoTime();
+        try {
+            int written = company.generatePayslips(directory, format == 2);
+            out.printf("PAYSLIPS: %d payslip(s) written to %s in %d ms.%n",
+                    written, directory.toAbsolutePath(), (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            out.println("ERROR: Payslips could not be written: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            out.println("ERROR: Payslip generation was interrupted.");
+        }
+        ReportOutput.flush(); // Report boundary
     }
-}
-
-
-/*
- * ===================================================================
- * CLASS: PartTimeEmployee (Derived Class)
- * ===================================================================
- * Implements TrainingRequired. Constructor passes Department up to parent.
- */
-class PartTimeEmployee extends Employee implements TrainingRequired {
 
-    private double hourlyRate;
-    private int hoursWorkedThisWeek; 
-
-    public PartTimeEmployee(String firstName, String lastName, double hourlyRate, Department workingDept) {
-        super(firstName, lastName, "P", EmployeeType.PART_TIME_HOURLY, workingDept); 
-        this.hourlyRate = hourlyRate;
-        this.hoursWorkedThisWeek = 0; 
+    /**
+     * UI HELPER: Prints the bonus and training report, then appends this run's
+     * training records to the compliance log.
+     */
+    private static void runEndOfYearReports() {
+        out.print("\n" + company.runEndOfYearReportsAsString());
+        try {
+            int written = company.recordEndOfYearTraining();
+            if (written > 0) {
+                out.printf("(%d training record(s) appended to the compliance log as run %s.)%n",
+                        written, company.getLastTrainingRunId());
+            }
+        } catch (IOException e) {
+            out.println("WARNING: Training records could not be saved: " + e.getMessage());
+        }
+        ReportOutput.flush(); // Report boundary
     }
 
-    public void setHoursWorked(int hours) {
-        this.hoursWorkedThisWeek = hours;
+    /**
+     * UI HELPER: Asks for this week's hours for every part-time employee.
+     */
+    private static void updateAllPartTimeHours() {
+        System.out.println("\n--- Updating Part-Time Hours for Payroll ---");
+        List<PartTimeEmployee> partTimers = company.getPartTimeEmployees();
+        for (PartTimeEmployee emp : partTimers) {
+            int hours = -1;
+            while (hours < 0) {
+                System.out.print("Enter hours worked for " + emp.getFullName() + ": ");
+                String input = scanner.nextLine();
+                try {
+                    hours = Integer.parseInt(input);
+                    if (hours < 0) System.out.println("Hours cannot be negative.");
+                } catch (NumberFormatException e) {
+                    System.out.println("Invalid number. Please try again.");
+                }
+            }
+            company.setHoursWorked(emp, hours);
+        }
+        if (partTimers.isEmpty()) {
+            System.out.println("No part-time employees found to update.");
+        }
     }
 
-    @Override
-    public double calculateWeeklyPay() {
-        return this.hourlyRate * this.hoursWorkedThisWeek;
-    }
+    private static void searchForEmployee() {
+        System.out.println("--- Search Employee ---");
+        System.out.print("Enter Employee ID to search (e.g., F101): ");
+        String id = scanner.nextLine();
 
-    @Override
-    public void attendMandatoryTraining() {
-        System.out.println("TRAINING LOGGED: " + getFullName() + " has attended the mandatory compliance training.");
-    }
+        Employee foundEmp = company.findEmployeeByID(id);
 
-    @Override
-    public void displayEmployeeDetails() {
-        super.displayEmployeeDetails(); 
-        System.out.printf("Hourly Rate: $%.2f%n", this.hourlyRate);
-        if (this.hoursWorkedThisWeek > 0) {
-            System.out.printf("Last Calculated Pay: $%.2f (%d hours)%n", calculateWeeklyPay(), this.hoursWorkedThisWeek);
+        if (foundEmp != null) {
+            System.out.println("--- Employee Found ---");
+            printReport(foundEmp.getDetailsAsString());
+        } else {
+            System.out.println("ERROR: No employee found with ID " + id);
         }
-        System.out.println("------------------------------");
     }
 }
 
 
 /*
  * ===================================================================
- * CLASS: Company (Container Class - Renamed from Department)
+ * CLASS: ReportOutput (Buffered Console Channel)
  * ===================================================================
- * Encapsulates BOTH the Employee list and the Department list.
+ * System.out is synchronized and flushes on every line. Report output
+ * is collected in a large buffer instead and handed to System.out in
+ * one go at each report boundary. It is written through whatever
+ * System.out is at that moment, so System.setOut() redirection and the
+ * console stream's own charset still apply.
  */
-class Company {
+final class ReportOutput {
+    private static final int BUFFER_SIZE = 1 << 16; // 64 KiB
 
-    private ArrayList<Employee> allEmployeesList;
-    private ArrayList<Department> allDepartmentsList; 
+    private static final PrintWriter OUT = new PrintWriter(
+            new BufferedWriter(new SystemOutWriter(), BUFFER_SIZE), false);
 
-    public Company() {
-        this.allEmployeesList = new ArrayList<>();
-        this.allDepartmentsList = new ArrayList<>(); 
-    }
+    private ReportOutput() {}
 
-    // --- Methods for Employees ---
-    public void hireEmployee(Employee employee) {
-        this.allEmployeesList.add(employee);
-        System.out.printf("HIRE SUCCESS: %s (%s) has been hired into %s.%n", 
-            employee.getFullName(), employee.getEmployeeID(), employee.getWorkingDept().getDeptName());
-    }
+    public static PrintWriter out() { return OUT; }
 
-    public Employee findEmployeeByID(String id) {
-        for (Employee emp : allEmployeesList) {
-            if (emp.getEmployeeID().equalsIgnoreCase(id)) {
-                return emp; 
-            }
-        }
-        return null; 
-    }
-    
-    public void displayAllEmployees() {
-        System.out.println("\n--- SHOWING ALL EMPLOYEES IN COMPANY ---");
-        if (allEmployeesList.isEmpty()) {
-            System.out.println("No employees have been hired yet.");
-            return;
-        }
-        for (Employee emp : allEmployeesList) {
-            emp.displayEmployeeDetails(); // Polymorphic call
-        }
-        System.out.println("\n--- END OF EMPLOYEE LIST ---");
-    }
-
-    // --- Methods for Departments ---
-    public void addDepartment(Department dept) {
-        this.allDepartmentsList.add(dept);
-        System.out.println("New department created: " + dept.getDeptName());
-    }
-
-    public Department findDepartmentById(String id) {
-        for (Department dept : allDepartmentsList) {
-            if (dept.getDeptId().equalsIgnoreCase(id)) {
-                return dept;
-            }
-        }
-        return null;
-    }
-    
-    public ArrayList<Department> getAvailableDepartments() {
-        return this.allDepartmentsList;
-    }
-
-
-    // --- Methods for Payroll and Reports ---
+    /** Report boundary: write everything buffered so far before control returns to the menu. */
+    public static void flush() { OUT.flush(); }
 
-    public void updateAllPartTimeHours(Scanner scanner) {
-        System.out.println("\n--- Updating Part-Time Hours for Payroll ---");
-        boolean foundPartTimers = false;
-        for (Employee emp : allEmployeesList) {
-            if (emp instanceof PartTimeEmployee) {
-                foundPartTimers = true;
-                int hours = -1;
-                while(hours < 0){
-                     System.out.print("Enter hours worked for " + emp.getFullName() + ": ");
-                     String input = scanner.nextLine();
-                     try {
-                        hours = Integer.parseInt(input);
-                        if (hours < 0) System.out.println("Hours cannot be negative.");
-                     } catch (NumberFormatException e){
-                        System.out.println("Invalid number. Please try again.");
-                     }
-                }
-                ((PartTimeEmployee) emp).setHoursWorked(hours);
-            }
-        }
-        if (!foundPartTimers) {
-             System.out.println("No part-time employees found to update.");
+    /** Forwards each buffered chunk to the current System.out, which does the encoding. */
+    private static final class SystemOutWriter extends Writer {
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            System.out.print(new String(cbuf, off, len));
         }
-    }
 
-    public void generatePayrollReport() {
-        System.out.println("\n--- WEEKLY COMPANY-WIDE PAYROLL REPORT ---");
-        double totalPayroll = 0.0;
-
-        for (Employee emp : allEmployeesList) {
-            double pay = emp.calculateWeeklyPay(); 
-            System.out.printf("PAYING: %s (%s, %s) --- $%,.2f%n",
-                    emp.getFullName(), emp.getEmployeeID(), emp.getWorkingDept().getDeptName(), pay);
-            totalPayroll += pay;
-        }
-        System.out.println("----------------------------------------");
-        System.out.printf("TOTAL COMPANY PAYROLL: $%,.2f%n", totalPayroll);
-    }
-    
-    /**
-     * REPORT: Uses Composition and loops departments first.
-     */
-    public void generateDepartmentPayrollReport() {
-        System.out.println("\n--- WEEKLY PAYROLL REPORT BY DEPARTMENT ---");
-        double grandTotalPayroll = 0.0;
-
-        // Outer loop: Iterate through each Department
-        for (Department dept : allDepartmentsList) {
-            System.out.printf("%n=== DEPARTMENT: %s ===%n", dept.getDeptName().toUpperCase());
-            double departmentSubtotal = 0.0;
-            boolean foundEmployeesInDept = false;
-
-            // Inner loop: Iterate through all employees to find matches
-            for (Employee emp : allEmployeesList) {
-                // Check if the employee's department object matches this department
-                if (emp.getWorkingDept().equals(dept)) {
-                    foundEmployeesInDept = true;
-                    double pay = emp.calculateWeeklyPay(); // Polymorphic call
-                    System.out.printf("  PAYING: %s (%s) --- $%,.2f%n",
-                            emp.getFullName(), emp.getEmployeeID(), pay);
-                    departmentSubtotal += pay;
-                }
-            }
+        @Override
+        public void flush() { System.out.flush(); }
 
-            if (!foundEmployeesInDept) {
-                System.out.println("  No employees processed for this department.");
-            } else {
-                System.out.printf("  --- DEPARTMENT SUBTOTAL: $%,.2f ---%n", departmentSubtotal);
-            }
-            grandTotalPayroll += departmentSubtotal;
-        }
-        
-        System.out.println("\n========================================");
-        System.out.printf("GRAND TOTAL (ALL DEPTS): $%,.2f%n", grandTotalPayroll);
+        @Override
+        public void close() { flush(); } // System.out itself stays open
     }
+}
 
 
-    /**
-     * REPORT: Uses Interfaces (instanceof)
-     */
-    public void runEndOfYearReports() {
-        System.out.println("\n--- END-OF-YEAR BONUS & TRAINING REPORT ---");
-        
-        for (Employee emp : allEmployeesList) {
-            
-            // Check for Bonus BEHAVIOR
-            if (emp instanceof BonusPayable) {
-                BonusPayable bonusEmp = (BonusPayable) emp;
-                double bonus = bonusEmp.calculateAnnualBonus();
-                System.out.printf("BONUS: %s (%s, Dept: %s) earned $%,.2f%n",
-                        emp.getFullName(), emp.getEmployeeID(), emp.getWorkingDept().getDeptName(), bonus);
-            }
-
-            // Check for Training BEHAVIOR
-            if (emp instanceof TrainingRequired) {
-                TrainingRequired trainEmp = (TrainingRequired) emp;
-                trainEmp.attendMandatoryTraining(); 
-            }
-        }
-    }
-}
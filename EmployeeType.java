@@ -0,0 +1,9 @@
+/*
+ * ===================================================================
+ * ENUM: EmployeeType (Kind of Employment)
+ * ===================================================================
+ */
+enum EmployeeType {
+    FULL_TIME_SALARIED,
+    PART_TIME_HOURLY
+}
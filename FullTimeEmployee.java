@@ -0,0 +1,27 @@
+/*
+ * ===================================================================
+ * CLASS: FullTimeEmployee (Derived Class)
+ * ===================================================================
+ * Salaried staff; eligible for the annual bonus.
+ */
+class FullTimeEmployee extends Employee implements BonusPayable {
+    private double annualSalary;
+
+    public FullTimeEmployee(String firstName, String lastName, double annualSalary, Department workingDept) {
+        super(firstName, lastName, "F", EmployeeType.FULL_TIME_SALARIED, workingDept);
+        this.annualSalary = annualSalary;
+    }
+
+    public double getAnnualSalary() { return this.annualSalary; }
+    @Override public double calculateWeeklyPay() { return this.annualSalary / 52.0; }
+    @Override public double calculateAnnualBonus() { return this.annualSalary * BonusPayable.BONUS_RATE; }
+
+    @Override
+    protected String renderDetails() {
+        return super.renderDetails() +
+               String.format(" Annual Salary: $%,.2f%n", this.annualSalary) +
+               String.format(" Weekly Pay:    $%,.2f%n", calculateWeeklyPay()) +
+               String.format(" Annual Bonus:  $%,.2f%n", calculateAnnualBonus()) +
+               "------------------------------\n";
+    }
+}
@@ -0,0 +1,48 @@
+import java.time.LocalDate;
+
+/*
+ * ===================================================================
+ * CLASS: PartTimeEmployee (Derived Class)
+ * ===================================================================
+ * Hourly staff; must attend the mandatory compliance training.
+ */
+class PartTimeEmployee extends Employee implements TrainingRequired {
+    private double hourlyRate;
+    private int hoursWorkedThisWeek;
+    private LocalDate lastTrainingDate; // null until the first completed training
+
+    public PartTimeEmployee(String firstName, String lastName, double hourlyRate, Department workingDept) {
+        super(firstName, lastName, "P", EmployeeType.PART_TIME_HOURLY, workingDept);
+        this.hourlyRate = hourlyRate;
+        this.hoursWorkedThisWeek = 0;
+    }
+
+    /** Package-private: only Company updates hours, so its caches and pay columns stay in sync. */
+    void setHoursWorked(int hours) {
+        this.hoursWorkedThisWeek = hours;
+        invalidateDetails(); // "Last Pay Calc" line depends on hours
+    }
+    public int getHoursWorked() { return this.hoursWorkedThisWeek; }
+    public double getHourlyRate() { return this.hourlyRate; }
+    @Override public double calculateWeeklyPay() { return this.hourlyRate * this.hoursWorkedThisWeek; }
+    /** Marks today's mandatory training as completed; shown in the employee details. */
+    @Override public void attendMandatoryTraining() {
+        this.lastTrainingDate = LocalDate.now();
+        invalidateDetails();
+    }
+    public LocalDate getLastTrainingDate() { return this.lastTrainingDate; }
+    public String getTrainingLogMessage() { return String.format("TRAINING LOGGED: %s has attended mandatory training.", getFullName()); }
+
+    @Override
+    protected String renderDetails() {
+        String details = super.renderDetails() +
+                         String.format(" Hourly Rate:   $%.2f%n", this.hourlyRate);
+        if (this.hoursWorkedThisWeek > 0) {
+            details += String.format(" Last Pay Calc: $%.2f (%d hours)%n", calculateWeeklyPay(), this.hoursWorkedThisWeek);
+        }
+        if (this.lastTrainingDate != null) {
+            details += String.format(" Last Training: %s%n", this.lastTrainingDate);
+        }
+        return details + "------------------------------\n";
+    }
+}
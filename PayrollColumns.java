@@ -0,0 +1,114 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/*
+ * ===================================================================
+ * CLASS: PayrollColumns (Primitive Pay Inputs)
+ * ===================================================================
+ * The pay inputs of every employee in plain arrays, one row per
+ * employee. Full-time rows carry a salary and zero rate/hours, part-time
+ * rows the other way round, so the pay kernel needs no type checks:
+ *   weekly pay = salary / 52 + rate * hours,  bonus = salary * BONUS_RATE
+ * Each row also holds the employee's department slot (-1 if none).
+ */
+class PayrollColumns {
+    private static final int INITIAL_CAPACITY = 16;
+
+    double[] salary;
+    double[] hourlyRate;
+    int[] hours;
+    int[] deptSlot;
+    private int size;
+
+    PayrollColumns() {
+        this(INITIAL_CAPACITY);
+    }
+
+    PayrollColumns(int capacity) {
+        capacity = Math.max(capacity, 1);
+        this.salary = new double[capacity];
+        this.hourlyRate = new double[capacity];
+        this.hours = new int[capacity];
+        this.deptSlot = new int[capacity];
+    }
+
+    /** Columns for a plain employee list; departments are numbered by their list position. */
+    public static PayrollColumns of(List<Employee> employees, List<Department> departments) {
+        HashMap<Department, Integer> positions = new HashMap<>();
+        for (int d = 0; d < departments.size(); d++) {
+            positions.putIfAbsent(departments.get(d), d);
+        }
+        PayrollColumns columns = new PayrollColumns(employees.size());
+        for (Employee emp : employees) {
+            columns.add(emp, positions.getOrDefault(emp.getWorkingDept(), -1));
+        }
+        return columns;
+    }
+
+    /** @return the new row */
+    public int add(Employee emp, int slot) {
+        if (emp instanceof FullTimeEmployee) {
+            return addRow(((FullTimeEmployee) emp).getAnnualSalary(), 0.0, 0, slot);
+        } else if (emp instanceof PartTimeEmployee) {
+            PartTimeEmployee ptEmp = (PartTimeEmployee) emp;
+            return addRow(0.0, ptEmp.getHourlyRate(), ptEmp.getHoursWorked(), slot);
+        }
+        throw new IllegalArgumentException("Unsupported employee type: " + emp.getClass().getSimpleName());
+    }
+
+    /** A raw row, e.g. one received by a shard process. @return the new row */
+    public int addRow(double rowSalary, double rowHourlyRate, int rowHours, int slot) {
+        if (size == salary.length) grow();
+        int row = size++;
+        salary[row] = rowSalary;
+        hourlyRate[row] = rowHourlyRate;
+        hours[row] = rowHours;
+        deptSlot[row] = slot;
+        return row;
+    }
+
+    /** Pay of one row with the kernel's arithmetic (see PayrollTotals), e.g. for running totals. */
+    public double weeklyPay(int row) {
+        checkRow(row);
+        return weeklyPay(salary[row], hourlyRate[row], hours[row]);
+    }
+    public double annualBonus(int row) { return annualBonus(salary[checkRow(row)]); }
+
+    static double weeklyPay(double rowSalary, double rowHourlyRate, int rowHours) {
+        return rowSalary / 52.0 + rowHourlyRate * rowHours; // One term is zero for each type
+    }
+    static double annualBonus(double rowSalary) { return rowSalary * BonusPayable.BONUS_RATE; }
+
+    public void setHours(int row, int value) { hours[checkRow(row)] = value; }
+    public void setDeptSlot(int row, int slot) { deptSlot[checkRow(row)] = slot; }
+    public int getDeptSlot(int row) { return deptSlot[checkRow(row)]; }
+    public int size() { return size; }
+
+    /** An independent copy of the given rows, in the given order. */
+    public PayrollColumns copyRows(int[] rows) {
+        PayrollColumns copy = new PayrollColumns(rows.length);
+        for (int i = 0; i < rows.length; i++) {
+            int row = checkRow(rows[i]);
+            copy.salary[i] = salary[row];
+            copy.hourlyRate[i] = hourlyRate[row];
+            copy.hours[i] = hours[row];
+            copy.deptSlot[i] = deptSlot[row];
+        }
+        copy.size = rows.length;
+        return copy;
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        return row;
+    }
+
+    private void grow() {
+        int capacity = salary.length * 2;
+        salary = Arrays.copyOf(salary, capacity);
+        hourlyRate = Arrays.copyOf(hourlyRate, capacity);
+        hours = Arrays.copyOf(hours, capacity);
+        deptSlot = Arrays.copyOf(deptSlot, capacity);
+    }
+}
@@ -0,0 +1,234 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/*
+ * ===================================================================
+ * CLASS: PayrollExporter (Machine-Readable Pay Run Output)
+ * ===================================================================
+ * Streams the pay run to disk for downstream accounting systems:
+ *  - payroll.csv: one row per employee, written through a large buffer.
+ *    Records end in CRLF as RFC 4180 asks, whatever the platform.
+ *  - payroll.bin: a compact columnar file. Department names are stored
+ *    once in a dictionary and rows refer to them by code; IDs are split
+ *    into prefix and number, and numbers are delta + varint encoded.
+ *    readColumnar() reads it back.
+ */
+class PayrollExporter {
+    private static final int BUFFER_SIZE = 1 << 16; // 64 KiB
+    private static final int COLUMNAR_MAGIC = 0x50415952; // "PAYR"
+    private static final int COLUMNAR_VERSION = 1;
+    private static final String CSV_LINE_END = "\r\n"; // RFC 4180, not the platform separator
+
+    private PayrollExporter() {}
+
+    /** rowDepartments.get(i) is the department of employees.get(i) at the time of the pay run. */
+    public static void exportCsv(Path file, List<Employee> employees, List<Department> rowDepartments,
+                                 PayrollTotals totals) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(Files.newBufferedWriter(file), BUFFER_SIZE)) {
+            writer.write("employee_id,full_name,type,department_id,department_name,weekly_pay,annual_bonus");
+            writer.write(CSV_LINE_END);
+            for (int i = 0; i < employees.size(); i++) {
+                Employee emp = employees.get(i);
+                Department dept = rowDepartments.get(i);
+                writer.write(csvField(emp.getEmployeeID()));
+                writer.write(',');
+                writer.write(csvField(emp.getFullName()));
+                writer.write(',');
+                writer.write(emp.getEmployeeType().name());
+                writer.write(',');
+                writer.write(csvField(dept.getDeptId()));
+                writer.write(',');
+                writer.write(csvField(dept.getDeptName()));
+                writer.write(',');
+                writeAmount(writer, totals.getWeeklyPay(i));
+                writer.write(',');
+                writeAmount(writer, totals.getAnnualBonus(i));
+                writer.write(CSV_LINE_END);
+            }
+        }
+    }
+
+    /**
+     * Layout: magic, version, row count, department dictionary (id, name), then one
+     * column at a time: department code, type, ID prefix, ID number delta, name,
+     * weekly pay, annual bonus.
+     */
+    public static void exportColumnar(Path file, List<Employee> employees, List<Department> rowDepartments,
+                                      PayrollTotals totals) throws IOException {
+        // Dictionary: each distinct department gets a small code in order of first use
+        LinkedHashMap<Department, Integer> dictionary = new LinkedHashMap<>();
+        for (Department dept : rowDepartments) {
+            dictionary.putIfAbsent(dept, dictionary.size());
+        }
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE))) {
+            out.writeInt(COLUMNAR_MAGIC);
+            out.writeShort(COLUMNAR_VERSION);
+            out.writeInt(employees.size());
+
+            out.writeInt(dictionary.size());
+            for (Department dept : dictionary.keySet()) {
+                out.writeUTF(dept.getDeptId());
+                out.writeUTF(dept.getDeptName());
+            }
+
+            for (Department dept : rowDepartments) writeVarLong(out, dictionary.get(dept));
+            for (Employee emp : employees) out.writeByte(emp.getEmployeeType().ordinal());
+            for (Employee emp : employees) out.writeByte(EmployeeIds.prefix(emp.getPackedId()));
+
+            long previous = 0;
+            for (Employee emp : employees) {
+                long number = EmployeeIds.sequence(emp.getPackedId());
+                long delta = number - previous;
+                writeVarLong(out, (delta << 1) ^ (delta >> 63)); // ZigZag keeps small negatives small
+                previous = number;
+            }
+
+            for (Employee emp : employees) out.writeUTF(emp.getFullName());
+            for (int i = 0; i < employees.size(); i++) out.writeDouble(totals.getWeeklyPay(i));
+            for (int i = 0; i < employees.size(); i++) out.writeDouble(totals.getAnnualBonus(i));
+        }
+    }
+
+    /** One employee row of a columnar export. */
+    static final class ExportedRow {
+        final String employeeId;
+        final String fullName;
+        final EmployeeType type;
+        final String deptId;
+        final String deptName;
+        final double weeklyPay;
+        final double annualBonus;
+
+        ExportedRow(String employeeId, String fullName, EmployeeType type, String deptId, String deptName,
+                    double weeklyPay, double annualBonus) {
+            this.employeeId = employeeId;
+            this.fullName = fullName;
+            this.type = type;
+            this.deptId = deptId;
+            this.deptName = deptName;
+            this.weeklyPay = weeklyPay;
+            this.annualBonus = annualBonus;
+        }
+    }
+
+    /** Reads a file written by exportColumnar(); rows come back in export order. */
+    public static List<ExportedRow> readColumnar(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE))) {
+            int magic = in.readInt();
+            if (magic != COLUMNAR_MAGIC) throw new IOException(file + " is not a columnar payroll export");
+            int version = in.readUnsignedShort();
+            if (version != COLUMNAR_VERSION) throw new IOException("Unsupported columnar payroll version " + version);
+            int rows = readCount(in, "row");
+
+            int dictionarySize = readCount(in, "department");
+            String[] deptIds = new String[dictionarySize];
+            String[] deptNames = new String[dictionarySize];
+            for (int d = 0; d < dictionarySize; d++) {
+                deptIds[d] = in.readUTF();
+                deptNames[d] = in.readUTF();
+            }
+
+            int[] deptCodes = new int[rows];
+            for (int i = 0; i < rows; i++) {
+                long code = readVarLong(in);
+                if (code >= dictionarySize) throw new IOException("Row " + i + " has unknown department code " + code);
+                deptCodes[i] = (int) code;
+            }
+            EmployeeType[] typeValues = EmployeeType.values();
+            EmployeeType[] types = new EmployeeType[rows];
+            for (int i = 0; i < rows; i++) {
+                int ordinal = in.readUnsignedByte();
+                if (ordinal >= typeValues.length) throw new IOException("Row " + i + " has unknown employee type " + ordinal);
+                types[i] = typeValues[ordinal];
+            }
+            char[] prefixes = new char[rows];
+            for (int i = 0; i < rows; i++) prefixes[i] = (char) in.readUnsignedByte();
+
+            String[] ids = new String[rows];
+            long previous = 0;
+            for (int i = 0; i < rows; i++) {
+                long zigZag = readVarLong(in);
+                long number = previous + ((zigZag >>> 1) ^ -(zigZag & 1));
+                try {
+                    ids[i] = EmployeeIds.format(EmployeeIds.pack(prefixes[i], number));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Row " + i + " has an invalid employee ID", e);
+                }
+                previous = number;
+            }
+
+            String[] names = new String[rows];
+            for (int i = 0; i < rows; i++) names[i] = in.readUTF();
+            double[] weeklyPay = new double[rows];
+            for (int i = 0; i < rows; i++) weeklyPay[i] = in.readDouble();
+            double[] annualBonus = new double[rows];
+            for (int i = 0; i < rows; i++) annualBonus[i] = in.readDouble();
+            if (in.read() >= 0) throw new IOException("Unexpected data after " + rows + " rows in " + file);
+
+            List<ExportedRow> result = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                result.add(new ExportedRow(ids[i], names[i], types[i], deptIds[deptCodes[i]], deptNames[deptCodes[i]],
+                        weeklyPay[i], annualBonus[i]));
+            }
+            return result;
+        }
+    }
+
+    private static int readCount(DataInputStream in, String what) throws IOException {
+        int count = in.readInt();
+        if (count < 0) throw new IOException("Negative " + what + " count " + count);
+        return count;
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Varint longer than 64 bits");
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /** Writes a money amount with two decimals, without going through String.format per row. */
+    private static void writeAmount(BufferedWriter writer, double amount) throws IOException {
+        long cents = Math.round(amount * 100.0);
+        if (cents < 0) {
+            writer.write('-');
+            cents = -cents;
+        }
+        writer.write(Long.toString(cents / 100));
+        writer.write('.');
+        long fraction = cents % 100;
+        if (fraction < 10) writer.write('0');
+        writer.write(Long.toString(fraction));
+    }
+
+    /** RFC 4180 quoting: fields with a comma, quote, CR or LF are quoted. */
+    static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
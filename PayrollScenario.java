@@ -0,0 +1,62 @@
+import java.util.HashMap;
+
+/*
+ * ===================================================================
+ * CLASS: PayrollScenario (What-If Parameter Overrides)
+ * ===================================================================
+ * A set of overrides (bonus rate, department raises, part-time hours
+ * cap) applied on the fly while reading employees. Nothing is copied
+ * or modified, so one Company can be evaluated under many scenarios.
+ */
+class PayrollScenario {
+    private final String name;
+    private double bonusRate = BonusPayable.BONUS_RATE;
+    private int partTimeHoursCap = Integer.MAX_VALUE;
+    private final HashMap<Department, Double> raisePercentByDept = new HashMap<>();
+
+    public PayrollScenario(String name) {
+        this.name = name;
+    }
+
+    public PayrollScenario withBonusRate(double bonusRate) {
+        this.bonusRate = bonusRate;
+        return this;
+    }
+
+    public PayrollScenario withDepartmentRaise(Department dept, double raisePercent) {
+        this.raisePercentByDept.put(dept, raisePercent);
+        return this;
+    }
+
+    public PayrollScenario withPartTimeHoursCap(int maxHours) {
+        this.partTimeHoursCap = maxHours;
+        return this;
+    }
+
+    public String getName() { return name; }
+
+    private double raiseFactor(Employee emp) {
+        return 1.0 + raisePercentByDept.getOrDefault(emp.getWorkingDept(), 0.0) / 100.0;
+    }
+
+    public double weeklyPay(Employee emp) {
+        if (emp instanceof FullTimeEmployee) {
+            return ((FullTimeEmployee) emp).getAnnualSalary() * raiseFactor(emp) / 52.0;
+        }
+        if (emp instanceof PartTimeEmployee) {
+            PartTimeEmployee ptEmp = (PartTimeEmployee) emp;
+            return ptEmp.getHourlyRate() * raiseFactor(emp) * Math.min(ptEmp.getHoursWorked(), partTimeHoursCap);
+        }
+        return emp.calculateWeeklyPay();
+    }
+
+    public double annualBonus(Employee emp) {
+        if (emp instanceof FullTimeEmployee) {
+            return ((FullTimeEmployee) emp).getAnnualSalary() * raiseFactor(emp) * bonusRate;
+        }
+        if (emp instanceof BonusPayable) {
+            return ((BonusPayable) emp).calculateAnnualBonus();
+        }
+        return 0.0;
+    }
+}
@@ -0,0 +1,158 @@
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * ===================================================================
+ * CLASS: PayrollScheduler (Recurring Payroll Runs)
+ * ===================================================================
+ * Fires named jobs on a weekly calendar (day of week + time). One timer
+ * thread only decides WHEN; every run gets its own worker thread, so a
+ * slow job never delays the others. A failed run is retried up to
+ * MAX_RETRIES times with a growing delay, and each job keeps simple
+ * duration metrics. Run times follow the wall clock of the given zone,
+ * including its daylight saving changes. A cancelled job stops firing
+ * and is not retried any more.
+ */
+class PayrollScheduler {
+    private static final int MAX_RETRIES = 3; // So up to four attempts per run
+    private static final long RETRY_DELAY_SECONDS = 30;
+
+    private final ZoneId zone;
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(PayrollScheduler::daemon);
+    private final ExecutorService workers = Executors.newCachedThreadPool(PayrollScheduler::daemon);
+    private final Map<String, JobMetrics> metrics = new ConcurrentHashMap<>(); // Registered jobs
+    private final Map<String, ScheduledFuture<?>> nextRuns = new ConcurrentHashMap<>();
+
+    PayrollScheduler() {
+        this(ZoneId.systemDefault());
+    }
+
+    PayrollScheduler(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    /** @return false if a job with this name is already scheduled */
+    public boolean scheduleWeekly(String jobName, DayOfWeek day, LocalTime time, Callable<?> job) {
+        JobMetrics jobMetrics = new JobMetrics();
+        if (metrics.putIfAbsent(jobName, jobMetrics) != null) return false;
+        scheduleNext(jobName, jobMetrics, day, time, job);
+        return true;
+    }
+
+    /** Stops a job: its next run and any pending retries are dropped. @return false if it was not scheduled */
+    public boolean cancel(String jobName) {
+        if (metrics.remove(jobName) == null) return false;
+        ScheduledFuture<?> nextRun = nextRuns.remove(jobName);
+        if (nextRun != null) nextRun.cancel(false);
+        return true;
+    }
+
+    /** Runs and retries check this, so a job cancelled (or replaced) in the meantime does nothing. */
+    private boolean isActive(String jobName, JobMetrics jobMetrics) {
+        return metrics.get(jobName) == jobMetrics;
+    }
+
+    private void scheduleNext(String jobName, JobMetrics jobMetrics, DayOfWeek day, LocalTime time, Callable<?> job) {
+        ZonedDateTime now = ZonedDateTime.now(zone);
+        ZonedDateTime next = nextRun(now, day, time);
+        jobMetrics.setNextRun(next);
+
+        long delayMs = Duration.between(now, next).toMillis(); // Real elapsed time, so 23 or 25 h days count right
+        nextRuns.put(jobName, timer.schedule(() -> {
+            if (!isActive(jobName, jobMetrics)) return;
+            workers.execute(() -> runAttempt(jobName, jobMetrics, job, 1));
+            scheduleNext(jobName, jobMetrics, day, time, job); // Calendar-based, so DST changes do not drift the time
+        }, delayMs, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * The first given day and time strictly after now, on the zone's wall clock. A time
+     * that falls into a DST gap moves forward by the length of the gap.
+     */
+    static ZonedDateTime nextRun(ZonedDateTime now, DayOfWeek day, LocalTime time) {
+        LocalDate date = now.toLocalDate().with(TemporalAdjusters.nextOrSame(day));
+        ZonedDateTime next = ZonedDateTime.of(date, time, now.getZone());
+        if (!next.isAfter(now)) next = ZonedDateTime.of(date.plusWeeks(1), time, now.getZone());
+        return next;
+    }
+
+    private void runAttempt(String jobName, JobMetrics jobMetrics, Callable<?> job, int attempt) {
+        if (!isActive(jobName, jobMetrics)) return;
+        long start = System.nanoTime();
+        try {
+            job.call();
+            jobMetrics.recordSuccess((System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            jobMetrics.recordFailure(e);
+            if (attempt <= MAX_RETRIES) {
+                timer.schedule(() -> workers.execute(() -> runAttempt(jobName, jobMetrics, job, attempt + 1)),
+                        RETRY_DELAY_SECONDS * attempt, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    public String getStatusAsString() {
+        StringBuilder sb = new StringBuilder(String.format("%-28s %-20s %6s %8s %10s %10s%n",
+                "JOB", "NEXT RUN", "RUNS", "FAILURES", "LAST (ms)", "MAX (ms)"));
+        new TreeMap<>(metrics).forEach((name, m) -> sb.append(String.format("%-28s %s%n", name, m)));
+        return sb.toString();
+    }
+
+    public boolean hasJobs() { return !metrics.isEmpty(); }
+    public Set<String> getJobNames() { return new TreeSet<>(metrics.keySet()); }
+
+    private static Thread daemon(Runnable r) {
+        Thread thread = new Thread(r, "payroll-scheduler");
+        thread.setDaemon(true); // Scheduled runs must not keep the application alive
+        return thread;
+    }
+
+    /** Per-job counters; updated from worker threads, read from the EDT. */
+    static class JobMetrics {
+        private static final DateTimeFormatter NEXT_RUN_FORMAT = DateTimeFormatter.ofPattern("EEE yyyy-MM-dd HH:mm");
+
+        private ZonedDateTime nextRun;
+        private int runs;
+        private int failures;
+        private long lastDurationMs;
+        private long maxDurationMs;
+        private String lastError = "";
+
+        synchronized void setNextRun(ZonedDateTime nextRun) { this.nextRun = nextRun; }
+
+        synchronized void recordSuccess(long durationMs) {
+            runs++;
+            lastDurationMs = durationMs;
+            maxDurationMs = Math.max(maxDurationMs, durationMs);
+        }
+
+        synchronized void recordFailure(Exception e) {
+            failures++;
+            lastError = String.valueOf(e.getMessage());
+        }
+
+        @Override
+        public synchronized String toString() {
+            return String.format("%-20s %6d %8d %10d %10d%s", nextRun.format(NEXT_RUN_FORMAT), runs, failures,
+                    lastDurationMs, maxDurationMs, lastError.isEmpty() ? "" : "  (last error: " + lastError + ")");
+        }
+    }
+}
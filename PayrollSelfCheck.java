@@ -0,0 +1,763 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/*
+ * ===================================================================
+ * FILE: PayrollSelfCheck.java (Runnable Correctness Checks)
+ * ===================================================================
+ * Checks the optimized engine against the plain per-object results
+ * (calculateWeeklyPay / calculateAnnualBonus) on seeded random data.
+ * Prints one PASS/FAIL line per check and exits with status 1 if any
+ * check fails:
+ *   javac -encoding UTF-8 *.java
+ *   java PayrollSelfCheck
+ */
+public class PayrollSelfCheck {
+
+    /** One check; throws on the first mismatch. */
+    private interface Check {
+        String run() throws Exception;
+    }
+
+    private int failures;
+
+    public static void main(String[] args) {
+        PayrollSelfCheck self = new PayrollSelfCheck();
+        self.run("payroll kernel matches per-object pay", PayrollSelfCheck::kernelMatchesPerObjectPay);
+        self.run("company pay columns follow hires, hours and reorgs", PayrollSelfCheck::companyColumnsFollowChanges);
+        self.run("packed employee IDs and case-insensitive lookup", PayrollSelfCheck::packedIdsAndLookup);
+        self.run("shard processes match the single-process totals", PayrollSelfCheck::shardProcessesMatchSingleProcess);
+        self.run("training log writes one escaped line per record", PayrollSelfCheck::trainingLogRecords);
+        self.run("failed training writes leave nothing to duplicate", PayrollSelfCheck::failedTrainingWriteRetries);
+        self.run("payroll export round trip (columnar and CSV)", PayrollSelfCheck::exportRoundTrip);
+        self.run("report snapshots match live reports and stay detached", PayrollSelfCheck::snapshotsAreDetached);
+        self.run("weekly runs keep their wall-clock time across DST", PayrollSelfCheck::weeklyRunsAcrossDst);
+        self.run("merged departments fail their report and can be unscheduled", PayrollSelfCheck::mergedDepartmentJobs);
+        self.run("bulk moves are one event; a stalled subscriber sees drops", PayrollSelfCheck::eventBatchingAndDrops);
+        self.run("moves reject employees of another company", PayrollSelfCheck::movesRejectOutsiders);
+        self.run("cached reports follow every change", PayrollSelfCheck::cachedReportsFollowChanges);
+        self.run("what-if scenarios match the pay run and hand-computed overrides", PayrollSelfCheck::whatIfScenarios);
+        self.run("payslips: one file per employee, exact text, escaped HTML", PayrollSelfCheck::payslipFiles);
+
+        System.out.println(self.failures == 0 ? "All checks passed." : self.failures + " check(s) FAILED.");
+        if (self.failures > 0) System.exit(1);
+    }
+
+    private void run(String name, Check check) {
+        try {
+            String detail = check.run();
+            System.out.printf("PASS  %s (%s)%n", name, detail);
+        } catch (Exception | AssertionError e) {
+            failures++;
+            System.out.printf("FAIL  %s: %s%n", name, e);
+        }
+    }
+
+    // --- Checks ---
+
+    private static String kernelMatchesPerObjectPay() {
+        Random random = new Random(26);
+        int[] sizes = { 0, 1, 1_000, 120_001 }; // The last one spans several parallel slices
+        for (int size : sizes) {
+            List<Department> departments = randomDepartments(7);
+            List<Employee> employees = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                // One department in eight is not in the list, so those rows have no slot
+                Department dept = random.nextInt(8) == 0 ? new Department("X1", "Unlisted")
+                        : departments.get(random.nextInt(departments.size()));
+                employees.add(randomEmployee(random, dept));
+            }
+            expectSameAsPerObject(employees, departments, PayrollTotals.compute(employees, departments));
+        }
+        return sizes.length + " sizes up to " + sizes[sizes.length - 1] + " employees";
+    }
+
+    private static String companyColumnsFollowChanges() {
+        Random random = new Random(2026);
+        Company company = new Company();
+        List<Department> departments = randomDepartments(5);
+        departments.forEach(company::addDepartment);
+        List<PartTimeEmployee> partTimers = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            Employee emp = randomEmployee(random, departments.get(random.nextInt(departments.size())));
+            company.hireEmployee(emp);
+            if (emp instanceof PartTimeEmployee) partTimers.add((PartTimeEmployee) emp);
+        }
+        for (int i = 0; i < 2_000; i++) {
+            company.setHoursWorked(partTimers.get(random.nextInt(partTimers.size())), random.nextInt(41));
+        }
+        Department late = new Department("L1", "Late Team"); // Hired into before the company knows it
+        for (int i = 0; i < 50; i++) company.hireEmployee(randomEmployee(random, late));
+        company.addDepartment(late);
+        company.mergeDepartments(departments.get(1), departments.get(0));
+        company.splitDepartment(departments.get(2), new Department("N1", "New Team"), emp -> emp instanceof PartTimeEmployee);
+        company.moveEmployees(company.getEmployeesInDepartment(departments.get(3)).subList(0, 100), late);
+
+        List<Department> slots = new ArrayList<>(departments); // Slots in order of addDepartment
+        slots.add(late);
+        slots.add(company.findDepartmentById("N1"));
+        PayrollTotals totals = company.computeTotals();
+        expectSameAsPerObject(company.getEmployees(), slots, totals);
+
+        // Running totals follow the same changes without a kernel pass
+        PayrollSubtotals running = company.runningTotals();
+        expect(running.getRows() == company.getEmployees().size(), "running row count " + running.getRows());
+        expectClose(running.getTotalWeeklyPay(), totals.getTotalWeeklyPay(), "running total weekly pay");
+        expectClose(running.getTotalBonusCost(), totals.getTotalBonusCost(), "running total bonus cost");
+        for (int d = 0; d < slots.size(); d++) {
+            expect(running.getDeptHeadcount(d) == totals.getDeptHeadcount(d), "running headcount of slot " + d);
+            expectClose(running.getDeptSubtotal(d), totals.getDeptSubtotal(d), "running subtotal of slot " + d);
+        }
+
+        // Member lists stay in hire order after moves merge into them
+        for (Department dept : company.getAvailableDepartments()) {
+            List<Employee> expected = new ArrayList<>();
+            for (Employee emp : company.getEmployees()) {
+                if (emp.getWorkingDept() == dept) expected.add(emp);
+            }
+            expect(company.getEmployeesInDepartment(dept).equals(expected), "members of " + dept.getDeptName() + " out of hire order");
+        }
+        return company.getEmployees().size() + " employees after 2,000 hour updates, a late department, a merge, a split and a move";
+    }
+
+    private static String packedIdsAndLookup() {
+        for (String id : new String[] { "F101", "P102", "Z99999999999999" }) {
+            long packed = EmployeeIds.parse(id);
+            expect(EmployeeIds.format(packed).equals(id), "round trip of " + id);
+            expect(EmployeeIds.parse(id.toLowerCase()) == packed, "lower-case " + id);
+        }
+        for (String bad : new String[] { "", "F", "101", "F10x", "F-1", "\u00C9101", "F123456789012345",
+                                          "F0101", "f000101", "F00" }) {
+            expect(EmployeeIds.parse(bad) == EmployeeIds.INVALID, "invalid ID accepted: " + bad);
+        }
+
+        Company company = new Company();
+        Department dept = new Department("D1", "Dept 1");
+        company.addDepartment(dept);
+        List<Employee> hired = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) { // Enough to resize the index several times
+            Employee emp = randomEmployee(new Random(i), dept);
+            company.hireEmployee(emp);
+            hired.add(emp);
+        }
+        for (Employee emp : hired) {
+            expect(company.findEmployeeByID(emp.getEmployeeID().toLowerCase()) == emp, "lookup of " + emp.getEmployeeID());
+        }
+        expect(company.findEmployeeByID("Q1") == null && company.findEmployeeByID("not an id") == null, "unknown IDs");
+        return hired.size() + " lookups";
+    }
+
+    /** Starts three PayrollShardServer JVMs on this machine and runs the pay totals through them. */
+    private static String shardProcessesMatchSingleProcess() throws Exception {
+        Random random = new Random(30);
+        List<Department> departments = randomDepartments(6);
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 100_001; i++) {
+            Department dept = random.nextInt(8) == 0 ? new Department("X1", "Unlisted")
+                    : departments.get(random.nextInt(departments.size()));
+            employees.add(randomEmployee(random, dept));
+        }
+        PayrollColumns columns = PayrollColumns.of(employees, departments);
+        PayrollTotals single = PayrollTotals.compute(columns, departments.size());
+
+        int shardCount = 3;
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        List<Process> processes = new ArrayList<>();
+        try {
+            List<InetSocketAddress> addresses = new ArrayList<>();
+            for (int s = 0; s < shardCount; s++) {
+                Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), "PayrollShardServer", "0")
+                        .redirectError(ProcessBuilder.Redirect.INHERIT)
+                        .start();
+                processes.add(process);
+                String line = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8)).readLine();
+                expect(line != null && line.startsWith(PayrollShardServer.READY_PREFIX), "shard " + s + " did not start: " + line);
+                int port = Integer.parseInt(line.substring(PayrollShardServer.READY_PREFIX.length()).trim());
+                addresses.add(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+            }
+
+            Company company = new Company();
+            departments.forEach(company::addDepartment);
+            employees.forEach(company::hireEmployee);
+
+            PayrollSubtotals sharded;
+            try (PayrollShardClient client = new PayrollShardClient(addresses)) {
+                client.load(columns);
+                sharded = client.totals(departments.size());
+
+                PayrollColumns badSlot = new PayrollColumns();
+                badSlot.addRow(52_000.0, 0.0, 0, -2);
+                try {
+                    client.load(badSlot);
+                    throw new AssertionError("shard accepted department slot -2");
+                } catch (IOException expected) {
+                    expect(expected.getMessage().contains("slot -2"), "rejection message: " + expected.getMessage());
+                }
+
+                // The rejected batch must leave the connection usable
+                expect(company.generateDepartmentPayrollReportAsString(client).equals(company.generateDepartmentPayrollReportAsString()),
+                        "department report from shard sums differs from the local one");
+                client.shutdownShards();
+            }
+            for (Process process : processes) {
+                expect(process.waitFor(10, TimeUnit.SECONDS) && process.exitValue() == 0, "shard process did not exit cleanly");
+            }
+
+            expect(sharded.getRows() == columns.size(), "rows: " + sharded.getRows() + " != " + columns.size());
+            for (int d = 0; d < departments.size(); d++) {
+                expect(sharded.getDeptHeadcount(d) == single.getDeptHeadcount(d), "headcount of slot " + d);
+                expectClose(sharded.getDeptSubtotal(d), single.getDeptSubtotal(d), "subtotal of slot " + d);
+            }
+            expectClose(sharded.getTotalWeeklyPay(), single.getTotalWeeklyPay(), "total weekly pay");
+            expectClose(sharded.getTotalBonusCost(), single.getTotalBonusCost(), "total bonus cost");
+        } finally {
+            processes.forEach(Process::destroyForcibly);
+        }
+        return shardCount + " shard processes, " + employees.size() + " employees, department report and a rejected slot";
+    }
+
+    private static String trainingLogRecords() throws Exception {
+        Path file = Files.createTempFile("training_log", ".txt");
+        try {
+            TrainingLog log = new TrainingLog(file);
+            Department dept = new Department("D1", "Dept 1");
+            String[] lastNames = { "Plain", "Tab\there", "Two\nLines", "Back\\slash\r", "Zo\u00EB" };
+            List<Employee> trainees = new ArrayList<>();
+            for (String lastName : lastNames) trainees.add(new PartTimeEmployee("Pat", lastName, 20.0, dept));
+            expect(log.append(trainees) == lastNames.length, "first run count");
+            String firstRun = log.getLastRunId();
+            expect(log.append(List.of(new PartTimeEmployee("Pat", "Again", 20.0, dept))) == 1, "second run count");
+            expect(!log.getLastRunId().equals(firstRun), "each append gets its own run ID");
+
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            expect(lines.size() == lastNames.length + 1, "one line per record, got " + lines.size());
+            for (int i = 0; i < lines.size(); i++) {
+                String[] fields = lines.get(i).split("\t", -1);
+                expect(fields.length == 4, "four fields in " + lines.get(i));
+                expect(fields[0].equals(i < lastNames.length ? firstRun : log.getLastRunId()), "run ID of line " + i);
+                Instant.parse(fields[1]); // Throws if the timestamp is malformed
+                String lastName = i < lastNames.length ? lastNames[i] : "Again";
+                expect(fields[3].equals(TrainingLog.escape("Pat " + lastName)), "escaped name in " + lines.get(i));
+            }
+            expect(lines.get(1).endsWith("Pat Tab\\there") && lines.get(3).endsWith("Pat Back\\\\slash\\r"), "escape sequences");
+            return lines.size() + " records in 2 runs";
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static String failedTrainingWriteRetries() throws Exception {
+        Path dir = Files.createTempDirectory("training");
+        Path file = dir.resolve("missing").resolve("training_log.txt"); // Parent does not exist yet
+        try {
+            Company company = new Company(new TrainingLog(file));
+            Department dept = new Department("D1", "Dept 1");
+            company.addDepartment(dept);
+            PartTimeEmployee first = new PartTimeEmployee("Pat", "One", 20.0, dept);
+            PartTimeEmployee second = new PartTimeEmployee("Pat", "Two", 20.0, dept);
+            company.hireEmployee(first);
+            company.hireEmployee(second);
+            company.hireEmployee(new FullTimeEmployee("Sam", "Salaried", 52_000.0, dept));
+
+            try {
+                company.recordEndOfYearTraining();
+                throw new AssertionError("write into a missing directory succeeded");
+            } catch (IOException expected) {
+                // The log cannot be written; nobody may count as trained
+            }
+            expect(first.getLastTrainingDate() == null && second.getLastTrainingDate() == null,
+                    "training date set although the record was not written");
+            expect(company.getLastTrainingRunId() == null, "run ID of a failed write");
+            expect(!company.getAllEmployeesDetailsAsString().contains("Last Training"), "details after a failed write");
+
+            Files.createDirectories(file.getParent());
+            expect(company.recordEndOfYearTraining() == 2, "retry record count");
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            expect(lines.size() == 2, "retry wrote " + lines.size() + " line(s), expected 2");
+            expect(first.getLastTrainingDate() != null && second.getLastTrainingDate() != null, "training date after the retry");
+            expect(company.getAllEmployeesDetailsAsString().contains("Last Training"), "details after the retry");
+            return "1 failed write, 1 retry, " + lines.size() + " records";
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(file.getParent());
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    private static String exportRoundTrip() throws Exception {
+        Random random = new Random(34);
+        List<Department> departments = randomDepartments(3);
+        departments.add(new Department("D,4", "Sales, \"North\"\r\nRegion"));
+        String[] awkwardNames = { "Comma, Jr.", "Quote \"Q\"", "Carriage\rReturn", "Line\nFeed", "Cr\r\nLf",
+                "Zo\u00EB \u4E2D\uD83D\uDE00", "" };
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            Department dept = departments.get(random.nextInt(departments.size()));
+            if (i < awkwardNames.length) {
+                employees.add(new FullTimeEmployee("Ann", awkwardNames[i], 50_000.0 + i, dept));
+            } else {
+                employees.add(randomEmployee(random, dept));
+            }
+        }
+        Collections.shuffle(employees, random); // ID deltas go negative as well as positive
+        PayrollTotals totals = PayrollTotals.compute(employees, departments);
+
+        Path dir = Files.createTempDirectory("payroll_export");
+        Path csvFile = dir.resolve("payroll.csv");
+        Path columnarFile = dir.resolve("payroll.bin");
+        try {
+            List<Department> rowDepartments = new ArrayList<>();
+            for (Employee emp : employees) rowDepartments.add(emp.getWorkingDept());
+            PayrollExporter.exportColumnar(columnarFile, employees, rowDepartments, totals);
+            PayrollExporter.exportCsv(csvFile, employees, rowDepartments, totals);
+
+            List<PayrollExporter.ExportedRow> rows = PayrollExporter.readColumnar(columnarFile);
+            expect(rows.size() == employees.size(), "columnar rows: " + rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                Employee emp = employees.get(i);
+                PayrollExporter.ExportedRow row = rows.get(i);
+                expect(row.employeeId.equals(emp.getEmployeeID()), "ID of row " + i);
+                expect(row.fullName.equals(emp.getFullName()), "name of " + emp.getEmployeeID());
+                expect(row.type == emp.getEmployeeType(), "type of " + emp.getEmployeeID());
+                expect(row.deptId.equals(emp.getWorkingDept().getDeptId())
+                        && row.deptName.equals(emp.getWorkingDept().getDeptName()), "department of " + emp.getEmployeeID());
+                expect(Double.compare(row.weeklyPay, totals.getWeeklyPay(i)) == 0
+                        && Double.compare(row.annualBonus, totals.getAnnualBonus(i)) == 0, "pay of " + emp.getEmployeeID());
+            }
+
+            String csv = new String(Files.readAllBytes(csvFile), StandardCharsets.UTF_8);
+            // Every record ends in CRLF; the last field of a record is always an amount
+            expect(csv.startsWith("employee_id,full_name,type,department_id,department_name,weekly_pay,annual_bonus\r\n"),
+                    "CSV header line end");
+            expect(csv.split("[0-9]\r\n", -1).length - 1 == employees.size() && csv.split("[0-9]\n", -1).length == 1,
+                    "CSV records must end in CRLF");
+            List<List<String>> records = parseCsv(csv);
+            expect(records.size() == employees.size() + 1, "CSV records: " + records.size());
+            for (int i = 0; i < employees.size(); i++) {
+                Employee emp = employees.get(i);
+                List<String> fields = records.get(i + 1);
+                expect(fields.size() == 7, "CSV field count for " + emp.getEmployeeID() + ": " + fields);
+                expect(fields.get(0).equals(emp.getEmployeeID()) && fields.get(1).equals(emp.getFullName())
+                        && fields.get(4).equals(emp.getWorkingDept().getDeptName()), "CSV fields of " + emp.getEmployeeID());
+                expect(Math.round(Double.parseDouble(fields.get(5)) * 100.0) == Math.round(totals.getWeeklyPay(i) * 100.0),
+                        "CSV pay of " + emp.getEmployeeID() + ": " + fields.get(5) + " != " + totals.getWeeklyPay(i));
+            }
+        } finally {
+            Files.deleteIfExists(csvFile);
+            Files.deleteIfExists(columnarFile);
+            Files.deleteIfExists(dir);
+        }
+        return employees.size() + " shuffled rows, " + awkwardNames.length + " awkward names, CRLF records";
+    }
+
+    private static String snapshotsAreDetached() {
+        Random random = new Random(37);
+        Company company = new Company();
+        List<Department> departments = randomDepartments(3);
+        departments.forEach(company::addDepartment);
+        for (int i = 0; i < 500; i++) company.hireEmployee(randomEmployee(random, departments.get(random.nextInt(3))));
+
+        PayrollSnapshot whole = company.snapshot();
+        PayrollSnapshot firstDept = company.snapshot(departments.get(0));
+        String companyReport = company.generatePayrollReportAsString();
+        String deptReport = company.generateDepartmentReportAsString(departments.get(0));
+        expect(whole.renderCompanyPayroll().equals(companyReport), "company snapshot differs from the live report");
+        expect(firstDept.renderDepartmentReport(departments.get(0)).equals(deptReport), "department snapshot differs");
+
+        // Later changes must not leak into snapshots that were already taken
+        company.mergeDepartments(departments.get(0), departments.get(1));
+        company.hireEmployee(randomEmployee(random, departments.get(2)));
+        for (PartTimeEmployee ptEmp : company.getPartTimeEmployees()) company.setHoursWorked(ptEmp, 40);
+        expect(whole.renderCompanyPayroll().equals(companyReport), "company snapshot changed with the company");
+        expect(firstDept.renderDepartmentReport(departments.get(0)).equals(deptReport), "department snapshot changed");
+        expect(!company.snapshot().renderCompanyPayroll().equals(companyReport), "new snapshot sees the changes");
+        try {
+            company.snapshot(departments.get(0));
+            throw new AssertionError("snapshot of a merged department");
+        } catch (IllegalArgumentException expected) {
+            // Merged departments are no longer part of the company
+        }
+        return "company and department snapshots across a merge, a hire and hour updates";
+    }
+
+    private static String weeklyRunsAcrossDst() {
+        ZoneId berlin = ZoneId.of("Europe/Berlin"); // Clocks went 02:00 -> 03:00 on 2026-03-29 and back on 2026-10-25
+        LocalTime fivePm = LocalTime.of(17, 0);
+
+        ZonedDateTime beforeSpring = ZonedDateTime.of(2026, 3, 28, 17, 0, 0, 0, berlin);
+        ZonedDateTime next = PayrollScheduler.nextRun(beforeSpring, DayOfWeek.SUNDAY, fivePm);
+        expect(next.toLocalDateTime().equals(beforeSpring.toLocalDateTime().plusDays(1)), "spring run at " + next);
+        expect(Duration.between(beforeSpring, next).toHours() == 23, "spring delay " + Duration.between(beforeSpring, next));
+
+        ZonedDateTime beforeAutumn = ZonedDateTime.of(2026, 10, 24, 17, 0, 0, 0, berlin);
+        next = PayrollScheduler.nextRun(beforeAutumn, DayOfWeek.SUNDAY, fivePm);
+        expect(Duration.between(beforeAutumn, next).toHours() == 25, "autumn delay " + Duration.between(beforeAutumn, next));
+
+        next = PayrollScheduler.nextRun(beforeAutumn, DayOfWeek.SATURDAY, fivePm); // Due right now: next week
+        expect(next.toLocalDateTime().equals(beforeAutumn.toLocalDateTime().plusWeeks(1)), "same-time run at " + next);
+
+        next = PayrollScheduler.nextRun(beforeSpring, DayOfWeek.SUNDAY, LocalTime.of(2, 30)); // Inside the gap
+        expect(next.toLocalTime().equals(LocalTime.of(3, 30)), "gap run at " + next);
+        return "23 h and 25 h weeks, a run due now and a time inside the gap";
+    }
+
+    private static String mergedDepartmentJobs() {
+        Company company = new Company();
+        List<Department> departments = randomDepartments(2);
+        departments.forEach(company::addDepartment);
+        Random random = new Random(39);
+        for (int i = 0; i < 20; i++) company.hireEmployee(randomEmployee(random, departments.get(i % 2)));
+        company.mergeDepartments(departments.get(0), departments.get(1));
+        try {
+            company.generateDepartmentReportAsString(departments.get(0));
+            throw new AssertionError("report of a merged department did not fail");
+        } catch (IllegalArgumentException expected) {
+            // A scheduled run counts this as a failure and retries
+        }
+
+        PayrollScheduler scheduler = new PayrollScheduler();
+        expect(scheduler.scheduleWeekly("Dept payroll", DayOfWeek.MONDAY, LocalTime.NOON, () -> null), "first schedule");
+        expect(!scheduler.scheduleWeekly("Dept payroll", DayOfWeek.MONDAY, LocalTime.NOON, () -> null), "duplicate job");
+        expect(scheduler.cancel("Dept payroll") && !scheduler.hasJobs(), "cancel");
+        expect(!scheduler.cancel("Dept payroll"), "second cancel");
+        return "merge, schedule, duplicate and cancel";
+    }
+
+    private static String eventBatchingAndDrops() throws Exception {
+        Company company = new Company();
+        List<Department> departments = randomDepartments(2);
+        departments.forEach(company::addDepartment);
+        Random random = new Random(38);
+        for (int i = 0; i < 10_000; i++) company.hireEmployee(randomEmployee(random, departments.get(0)));
+        List<CompanyEvent> moves = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch removed = new CountDownLatch(1);
+        company.addChangeListener(batch -> {
+            for (CompanyEvent event : batch) {
+                if (event.getType() == CompanyEvent.Type.EMPLOYEES_MOVED) moves.add(event);
+                if (event.getType() == CompanyEvent.Type.DEPARTMENT_REMOVED) removed.countDown();
+            }
+        });
+        company.mergeDepartments(departments.get(0), departments.get(1));
+        expect(removed.await(5, TimeUnit.SECONDS), "no DEPARTMENT_REMOVED event");
+        expect(moves.size() == 1 && moves.get(0).getMovedEmployees().size() == 10_000, "one move event: " + moves);
+
+        // A subscriber that stops consuming: publishers wait once, then drop at once and say so
+        CompanyEventStream stream = new CompanyEventStream(8);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicLong reported = new AtomicLong();
+        stream.subscribe(batch -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            for (CompanyEvent event : batch) {
+                if (event.getType() == CompanyEvent.Type.EVENTS_DROPPED) reported.addAndGet(event.getDroppedEvents());
+            }
+        });
+        long start = System.nanoTime();
+        for (int i = 0; i < 10_000; i++) stream.publish(CompanyEvent.Type.HOURS_UPDATED, null, departments.get(1), i);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        expect(stream.getDroppedCount() > 0, "nothing dropped");
+        expect(elapsedMs < 1_000, "10,000 publishes blocked for " + elapsedMs + " ms"); // 5 ms each would be 50 s
+
+        Thread.currentThread().interrupt();
+        long before = stream.getDroppedCount();
+        stream.publish(CompanyEvent.Type.HOURS_UPDATED, null, departments.get(1), 0);
+        expect(Thread.interrupted() && stream.getDroppedCount() == before + 1, "interrupted publish is counted and keeps the flag");
+
+        release.countDown();
+        for (int wait = 0; wait < 500 && reported.get() != stream.getDroppedCount(); wait++) Thread.sleep(10);
+        expect(reported.get() == stream.getDroppedCount(), "reported " + reported + " of " + stream.getDroppedCount() + " drops");
+        return "10,000 movers in one event; " + stream.getDroppedCount() + " drops reported, 10,000 publishes took " + elapsedMs + " ms";
+    }
+
+    private static String movesRejectOutsiders() {
+        Company company = new Company();
+        List<Department> departments = randomDepartments(2);
+        departments.forEach(company::addDepartment);
+        Random random = new Random(39);
+        Employee member = randomEmployee(random, departments.get(0));
+        company.hireEmployee(member);
+        Employee outsider = randomEmployee(random, departments.get(0)); // Never hired here
+        String before = company.generateDepartmentPayrollReportAsString();
+        try {
+            company.moveEmployees(List.of(member, outsider), departments.get(1));
+            throw new AssertionError("outsider was accepted");
+        } catch (IllegalArgumentException expected) {
+            // Checked before anything changes
+        }
+        expect(member.getWorkingDept().equals(departments.get(0)) && outsider.getWorkingDept().equals(departments.get(0)),
+                "a department changed");
+        expect(company.generateDepartmentPayrollReportAsString().equals(before), "the company changed");
+        expect(company.moveEmployees(List.of(member), departments.get(1)) == 1, "member move");
+        return "mixed move rejected without changes, member move accepted";
+    }
+
+    private static String cachedReportsFollowChanges() throws Exception {
+        Path file = Files.createTempFile("training_log", ".txt");
+        try {
+            Company company = new Company(new TrainingLog(file));
+            List<Department> departments = randomDepartments(3);
+            departments.forEach(company::addDepartment);
+            Random random = new Random(28);
+            for (int i = 0; i < 300; i++) company.hireEmployee(randomEmployee(random, departments.get(i % 3)));
+            expectCachedReportsFresh(company, "the first render"); // Every report is cached from here on
+
+            company.hireEmployee(randomEmployee(random, departments.get(1)));
+            expectCachedReportsFresh(company, "a hire");
+            company.setHoursWorked(company.getPartTimeEmployees().get(0), 37);
+            expectCachedReportsFresh(company, "an hours update");
+            company.mergeDepartments(departments.get(2), departments.get(0));
+            expectCachedReportsFresh(company, "a merge");
+            expect(company.recordEndOfYearTraining() > 0, "nobody to train");
+            expectCachedReportsFresh(company, "recorded training");
+            expect(company.getAllEmployeesDetailsAsString().contains("Last Training"), "training date missing from the details");
+            return "hire, hours update, merge and training, " + company.getEmployees().size() + " employees";
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static String whatIfScenarios() {
+        // "Current" must agree with the pay kernel department by department
+        Random random = new Random(33);
+        Company company = new Company();
+        List<Department> departments = randomDepartments(4);
+        departments.forEach(company::addDepartment);
+        for (int i = 0; i < 2_000; i++) {
+            company.hireEmployee(randomEmployee(random, departments.get(random.nextInt(departments.size()))));
+        }
+        ScenarioResult current = company.simulateScenarios(List.of(new PayrollScenario("Current"))).get(0);
+        PayrollTotals totals = company.computeTotals(); // No reorgs, so slot d is list position d
+        for (int d = 0; d < departments.size(); d++) {
+            double bonus = 0.0;
+            for (int i = 0; i < company.getEmployees().size(); i++) {
+                if (totals.getDeptIndex(i) == d) bonus += totals.getAnnualBonus(i);
+            }
+            expectClose(current.getDeptPayroll(d), totals.getDeptSubtotal(d), "current payroll of " + departments.get(d).getDeptName());
+            expectClose(current.getDeptBonusCost(d), bonus, "current bonus cost of " + departments.get(d).getDeptName());
+        }
+
+        // Overrides against values worked out by hand
+        Company small = new Company();
+        Department raised = new Department("A1", "Raised");
+        Department other = new Department("B1", "Other");
+        small.addDepartment(raised);
+        small.addDepartment(other);
+        small.hireEmployee(new FullTimeEmployee("Ann", "Salaried", 52_000.0, raised));
+        PartTimeEmployee hourly = new PartTimeEmployee("Pat", "Hourly", 20.0, raised);
+        small.hireEmployee(hourly);
+        small.setHoursWorked(hourly, 30);
+        small.hireEmployee(new FullTimeEmployee("Bo", "Salaried", 104_000.0, other));
+        PayrollScenario whatIf = new PayrollScenario("What-if")
+                .withBonusRate(0.10).withDepartmentRaise(raised, 10.0).withPartTimeHoursCap(25);
+        List<ScenarioResult> results = small.simulateScenarios(List.of(new PayrollScenario("Current"), whatIf));
+        ScenarioResult now = results.get(0);
+        ScenarioResult then = results.get(1);
+        expectClose(now.getDeptPayroll(0), 1_000.0 + 20.0 * 30, "current payroll of Raised");
+        expectClose(now.getDeptBonusCost(0), 52_000.0 * 0.05, "current bonus of Raised");
+        expectClose(then.getDeptPayroll(0), 52_000.0 * 1.1 / 52 + 20.0 * 1.1 * 25, "raise and hours cap");      // 1,100 + 550
+        expectClose(then.getDeptBonusCost(0), 52_000.0 * 1.1 * 0.10, "raise and bonus rate");                     // 5,720
+        expectClose(then.getDeptPayroll(1), 104_000.0 / 52, "no raise outside the department");                  // 2,000
+        expectClose(then.getDeptBonusCost(1), 104_000.0 * 0.10, "bonus rate outside the department");            // 10,400
+        expect(hourly.getHoursWorked() == 30, "a scenario changed the employee's hours");
+
+        String report = small.generateScenarioReportAsString(whatIf);
+        expect(report.contains(String.format("%-15s %,18.2f %,18.2f %,18.2f %,18.2f", "TOTAL", 3_600.0, 3_650.0, 7_800.0, 16_120.0)),
+                "scenario report totals:\n" + report);
+        return departments.size() + " departments against the kernel, 3 overrides by hand";
+    }
+
+    private static String payslipFiles() throws Exception {
+        Company company = new Company();
+        Department dept = new Department("S1", "Sales & <Ops>");
+        company.addDepartment(dept);
+        FullTimeEmployee tagged = new FullTimeEmployee("Q<&\">", "Tag", 52_000.0, dept);
+        PartTimeEmployee hourly = new PartTimeEmployee("Pat", "Hourly", 22.5, dept);
+        company.hireEmployee(tagged);
+        company.hireEmployee(hourly);
+        company.setHoursWorked(hourly, 17);
+        Random random = new Random(35);
+        for (int i = 0; i < 598; i++) company.hireEmployee(randomEmployee(random, dept)); // Several worker batches
+
+        Path textDir = Files.createTempDirectory("payslips_text");
+        Path htmlDir = Files.createTempDirectory("payslips_html");
+        try {
+            expect(company.generatePayslips(textDir, false) == 600, "text payslip count");
+            expect(company.generatePayslips(htmlDir, true) == 600, "HTML payslip count");
+            for (Path dir : List.of(textDir, htmlDir)) {
+                String extension = dir == textDir ? ".txt" : ".html";
+                try (Stream<Path> files = Files.list(dir)) {
+                    expect(files.count() == 600, "files in " + dir);
+                }
+                for (Employee emp : company.getEmployees()) {
+                    expect(Files.exists(dir.resolve(emp.getEmployeeID() + extension)), "no payslip for " + emp.getEmployeeID());
+                }
+            }
+
+            String hourlySlip = Files.readString(textDir.resolve(hourly.getEmployeeID() + ".txt"), StandardCharsets.UTF_8);
+            expect(hourlySlip.equals("==============================\n"
+                    + "           PAYSLIP\n"
+                    + "==============================\n"
+                    + "ID:           " + hourly.getEmployeeID() + "\n"
+                    + "Name:         Pat Hourly\n"
+                    + "Type:         " + hourly.getEmployeeType() + "\n"
+                    + "Department:   Sales & <Ops>\n"
+                    + "Pay Basis:    $22.50/hour x 17 hours\n"
+                    + "Weekly Pay:   $382.50\n"
+                    + "Annual Bonus: $0.00\n"
+                    + "==============================\n"), "text payslip:\n" + hourlySlip);
+            String taggedSlip = Files.readString(textDir.resolve(tagged.getEmployeeID() + ".txt"), StandardCharsets.UTF_8);
+            expect(taggedSlip.contains("Name:         Q<&\"> Tag\n") && taggedSlip.contains("Weekly Pay:   $1,000.00\n")
+                    && taggedSlip.contains("Annual Bonus: $2,600.00\n"), "text payslip keeps the raw name:\n" + taggedSlip);
+
+            String html = Files.readString(htmlDir.resolve(tagged.getEmployeeID() + ".html"), StandardCharsets.UTF_8);
+            expect(html.contains("<tr><th>Name</th><td>Q&lt;&amp;&quot;&gt; Tag</td></tr>"), "escaped name:\n" + html);
+            expect(html.contains("<tr><th>Department</th><td>Sales &amp; &lt;Ops&gt;</td></tr>"), "escaped department:\n" + html);
+            expect(!html.contains("Q<&") && !html.contains("<Ops>"), "raw markup in the HTML payslip:\n" + html);
+            return "600 text and 600 HTML payslips, exact text, escaped name and department";
+        } finally {
+            for (Path dir : List.of(textDir, htmlDir)) {
+                try (Stream<Path> files = Files.list(dir)) {
+                    for (Path file : (Iterable<Path>) files::iterator) Files.deleteIfExists(file);
+                }
+                Files.deleteIfExists(dir);
+            }
+        }
+    }
+
+    // --- Helpers ---
+
+    /** Minimal RFC 4180 reader: quoted fields may hold commas, quotes, CR and LF. */
+    private static List<List<String>> parseCsv(String text) {
+        List<List<String>> records = new ArrayList<>();
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r' && i + 1 < text.length() && text.charAt(i + 1) == '\n') i++;
+                fields.add(field.toString());
+                field.setLength(0);
+                records.add(fields);
+                fields = new ArrayList<>();
+            } else {
+                field.append(c);
+            }
+        }
+        expect(!quoted && field.length() == 0 && fields.isEmpty(), "CSV ends inside a record");
+        return records;
+    }
+
+    /** Per-employee values must match exactly; sums may differ only by rounding order. */
+    private static void expectSameAsPerObject(List<Employee> employees, List<Department> slots, PayrollTotals totals) {
+        double[] deptPay = new double[slots.size()];
+        int[] deptHeadcount = new int[slots.size()];
+        double totalPay = 0.0;
+        double totalBonus = 0.0;
+        for (int i = 0; i < employees.size(); i++) {
+            Employee emp = employees.get(i);
+            double pay = emp.calculateWeeklyPay();
+            double bonus = (emp instanceof BonusPayable) ? ((BonusPayable) emp).calculateAnnualBonus() : 0.0;
+            expect(Double.compare(totals.getWeeklyPay(i), pay) == 0, "weekly pay of " + emp.getEmployeeID()
+                    + ": " + totals.getWeeklyPay(i) + " != " + pay);
+            expect(Double.compare(totals.getAnnualBonus(i), bonus) == 0, "bonus of " + emp.getEmployeeID()
+                    + ": " + totals.getAnnualBonus(i) + " != " + bonus);
+            int slot = slots.indexOf(emp.getWorkingDept());
+            expect(totals.getDeptIndex(i) == slot, "department slot of " + emp.getEmployeeID());
+            if (slot >= 0) {
+                deptPay[slot] += pay;
+                deptHeadcount[slot]++;
+            }
+            totalPay += pay;
+            totalBonus += bonus;
+        }
+        for (int d = 0; d < slots.size(); d++) {
+            expect(totals.getDeptHeadcount(d) == deptHeadcount[d], "headcount of slot " + d);
+            expectClose(totals.getDeptSubtotal(d), deptPay[d], "subtotal of slot " + d);
+        }
+        expectClose(totals.getTotalWeeklyPay(), totalPay, "total weekly pay");
+        expectClose(totals.getTotalBonusCost(), totalBonus, "total bonus cost");
+    }
+
+    /** The reports as served (possibly from the cache) must equal a render with an empty cache. */
+    private static void expectCachedReportsFresh(Company company, String change) {
+        List<String> served = renderAllReports(company);
+        company.clearReportCache();
+        List<String> fresh = renderAllReports(company);
+        for (int i = 0; i < fresh.size(); i++) {
+            expect(served.get(i).equals(fresh.get(i)), "report " + i + " is stale after " + change);
+        }
+    }
+
+    private static List<String> renderAllReports(Company company) {
+        List<String> reports = new ArrayList<>(List.of(company.getAllEmployeesDetailsAsString(),
+                company.generatePayrollReportAsString(), company.generateDepartmentPayrollReportAsString(),
+                company.runEndOfYearReportsAsString()));
+        for (Department dept : company.getAvailableDepartments()) {
+            reports.add(company.generateDepartmentReportAsString(dept));
+        }
+        return reports;
+    }
+
+    private static List<Department> randomDepartments(int count) {
+        List<Department> departments = new ArrayList<>();
+        for (int d = 0; d < count; d++) departments.add(new Department("D" + (d + 1), "Dept " + (d + 1)));
+        return departments;
+    }
+
+    private static Employee randomEmployee(Random random, Department dept) {
+        if (random.nextInt(10) < 7) {
+            return new FullTimeEmployee("Full", "Timer", 20_000 + random.nextInt(180_000) + random.nextInt(100) / 100.0, dept);
+        }
+        PartTimeEmployee ptEmp = new PartTimeEmployee("Part", "Timer", 15.0 + random.nextInt(3000) / 100.0, dept);
+        ptEmp.setHoursWorked(random.nextInt(41));
+        return ptEmp;
+    }
+
+    static void expect(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+
+    static void expectClose(double actual, double expected, String message) {
+        expect(Math.abs(actual - expected) <= 1e-9 * Math.max(1.0, Math.abs(expected)),
+                message + ": " + actual + " != " + expected);
+    }
+}
@@ -0,0 +1,130 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * ===================================================================
+ * CLASS: PayrollShardClient (Multi-Process Pay Run Coordinator)
+ * ===================================================================
+ * Spreads pay rows over PayrollShardServer processes by row range
+ * (hire order), asks every shard for its subtotals at once and merges
+ * the replies in shard order so the result is deterministic.
+ */
+class PayrollShardClient implements AutoCloseable {
+    private static final int CONNECT_TIMEOUT_MS = 5_000;
+    private static final int READ_TIMEOUT_MS = 60_000;
+    private static final int LOAD_BATCH = 8_192; // Rows per LOAD command
+
+    private final List<Shard> shards = new ArrayList<>();
+
+    PayrollShardClient(List<InetSocketAddress> addresses) throws IOException {
+        if (addresses.isEmpty()) throw new IllegalArgumentException("At least one shard address is required.");
+        try {
+            for (InetSocketAddress address : addresses) {
+                shards.add(new Shard(address));
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /** Replaces the rows held by every shard; shard s gets the s-th contiguous row range. */
+    public void load(PayrollColumns columns) throws IOException {
+        int rows = columns.size();
+        for (int s = 0; s < shards.size(); s++) {
+            Shard shard = shards.get(s);
+            shard.out.writeByte(PayrollShardServer.CLEAR);
+            shard.out.flush();
+            shard.expectOk();
+
+            int from = (int) ((long) rows * s / shards.size());
+            int to = (int) ((long) rows * (s + 1) / shards.size());
+            for (int batchStart = from; batchStart < to; batchStart += LOAD_BATCH) {
+                int batchEnd = Math.min(to, batchStart + LOAD_BATCH);
+                shard.out.writeByte(PayrollShardServer.LOAD);
+                shard.out.writeInt(batchEnd - batchStart);
+                for (int row = batchStart; row < batchEnd; row++) {
+                    shard.out.writeInt(columns.deptSlot[row]);
+                    shard.out.writeDouble(columns.salary[row]);
+                    shard.out.writeDouble(columns.hourlyRate[row]);
+                    shard.out.writeInt(columns.hours[row]);
+                }
+                shard.out.flush();
+                shard.expectOk();
+                shard.in.readInt(); // Rows held so far
+            }
+        }
+    }
+
+    /** All shards compute concurrently; their subtotals are merged in shard order. */
+    public PayrollSubtotals totals(int departmentSlots) throws IOException {
+        for (Shard shard : shards) {
+            shard.out.writeByte(PayrollShardServer.TOTALS);
+            shard.out.writeInt(departmentSlots);
+            shard.out.flush();
+        }
+        PayrollSubtotals merged = new PayrollSubtotals(departmentSlots);
+        for (Shard shard : shards) {
+            shard.expectOk();
+            merged.merge(PayrollSubtotals.readFrom(shard.in));
+        }
+        return merged;
+    }
+
+    /** Asks every shard process to exit. */
+    public void shutdownShards() throws IOException {
+        for (Shard shard : shards) {
+            shard.out.writeByte(PayrollShardServer.QUIT);
+            shard.out.flush();
+            shard.expectOk();
+        }
+    }
+
+    @Override
+    public void close() {
+        for (Shard shard : shards) {
+            try {
+                shard.socket.close();
+            } catch (IOException e) {
+                // Nothing left to release
+            }
+        }
+    }
+
+    /** One open connection to a shard process. */
+    private static class Shard {
+        final InetSocketAddress address;
+        final Socket socket;
+        final DataInputStream in;
+        final DataOutputStream out;
+
+        Shard(InetSocketAddress address) throws IOException {
+            this.address = address;
+            this.socket = new Socket();
+            try {
+                socket.connect(address, CONNECT_TIMEOUT_MS);
+                socket.setSoTimeout(READ_TIMEOUT_MS);
+                this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            } catch (IOException e) {
+                socket.close();
+                throw new IOException("Cannot reach shard " + address + ": " + e.getMessage(), e);
+            }
+        }
+
+        void expectOk() throws IOException {
+            byte status = in.readByte();
+            if (status != PayrollShardServer.OK) {
+                throw new IOException("Shard " + address + " failed: "
+                        + (status == PayrollShardServer.FAILED ? in.readUTF() : "status " + status));
+            }
+        }
+    }
+}
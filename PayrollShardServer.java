@@ -0,0 +1,131 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+/*
+ * ===================================================================
+ * FILE: PayrollShardServer.java (Payroll Shard Process)
+ * ===================================================================
+ * One shard of a multi-process pay run. Holds a slice of the pay rows
+ * in PayrollColumns and runs the PayrollTotals kernel over them when
+ * asked; PayrollShardClient spreads the rows over several shards and
+ * merges their PayrollSubtotals.
+ *   java PayrollShardServer [port] [bind address]
+ * Port 0 (the default) picks a free port; the chosen one is printed as
+ * the first line on stdout. Binds to the loopback address by default.
+ *
+ * PROTOCOL (DataInput/DataOutput over TCP, one command per request):
+ *   'L' n, then n x (dept slot int, salary double, rate double, hours int)
+ *                        -> OK, row count held; FAILED (nothing added) if a
+ *                           slot is below -1 (-1 means no department)
+ *   'T' department slots -> OK, PayrollSubtotals (see writeTo)
+ *   'C'                  -> OK; drops all rows
+ *   'Q'                  -> OK; the process exits
+ * Every reply starts with a status byte; FAILED is followed by a UTF message.
+ */
+public class PayrollShardServer {
+    static final byte LOAD = 'L';
+    static final byte TOTALS = 'T';
+    static final byte CLEAR = 'C';
+    static final byte QUIT = 'Q';
+    static final byte OK = 0;
+    static final byte FAILED = 1;
+    static final String READY_PREFIX = "PayrollShardServer listening on port ";
+
+    private PayrollColumns columns = new PayrollColumns();
+    private int maxSlot = -1;
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+        InetAddress bindAddress = args.length > 1 ? InetAddress.getByName(args[1]) : InetAddress.getLoopbackAddress();
+        try (ServerSocket server = new ServerSocket(port, 50, bindAddress)) {
+            System.out.println(READY_PREFIX + server.getLocalPort());
+            System.out.flush();
+
+            PayrollShardServer shard = new PayrollShardServer();
+            boolean running = true;
+            while (running) {
+                // One coordinator connection at a time; the rows survive reconnects
+                try (Socket socket = server.accept()) {
+                    running = shard.serve(socket);
+                } catch (IOException e) {
+                    System.err.println("Shard connection failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /** @return false once a QUIT command was handled */
+    private boolean serve(Socket socket) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        while (true) {
+            int command = in.read();
+            if (command < 0) return true; // Coordinator hung up
+
+            switch (command) {
+                case LOAD:
+                    int count = in.readInt();
+                    if (count < 0) {
+                        fail(out, "Negative row count " + count);
+                        return true; // The stream is out of step; drop the connection
+                    }
+                    // The whole batch is read first, so a rejected batch leaves the stream in step
+                    PayrollColumns batch = new PayrollColumns();
+                    String badRow = null;
+                    for (int i = 0; i < count; i++) {
+                        int slot = in.readInt();
+                        double salary = in.readDouble();
+                        double hourlyRate = in.readDouble();
+                        int hours = in.readInt();
+                        if (slot < -1 && badRow == null) badRow = "Row " + i + " of the batch has department slot " + slot;
+                        batch.addRow(salary, hourlyRate, hours, slot);
+                    }
+                    if (badRow != null) {
+                        fail(out, badRow + "; slots start at -1 (no department)");
+                        break;
+                    }
+                    for (int i = 0; i < batch.size(); i++) {
+                        columns.addRow(batch.salary[i], batch.hourlyRate[i], batch.hours[i], batch.deptSlot[i]);
+                        maxSlot = Math.max(maxSlot, batch.deptSlot[i]);
+                    }
+                    out.writeByte(OK);
+                    out.writeInt(columns.size());
+                    break;
+                case TOTALS:
+                    int departmentSlots = in.readInt();
+                    if (departmentSlots <= maxSlot) {
+                        fail(out, "Rows use department slot " + maxSlot + " but only " + departmentSlots + " slot(s) were requested");
+                        break;
+                    }
+                    out.writeByte(OK);
+                    PayrollTotals.compute(columns, departmentSlots).getSubtotals().writeTo(out);
+                    break;
+                case CLEAR:
+                    columns = new PayrollColumns();
+                    maxSlot = -1;
+                    out.writeByte(OK);
+                    break;
+                case QUIT:
+                    out.writeByte(OK);
+                    out.flush();
+                    return false;
+                default:
+                    fail(out, "Unknown command " + command);
+                    return true;
+            }
+            out.flush();
+        }
+    }
+
+    private static void fail(DataOutputStream out, String message) throws IOException {
+        out.writeByte(FAILED);
+        out.writeUTF(message);
+        out.flush();
+    }
+}
@@ -0,0 +1,89 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/*
+ * ===================================================================
+ * CLASS: PayrollSnapshot (Read-Only Report Input)
+ * ===================================================================
+ * Everything the pay reports need: the rows in hire order with their
+ * pay columns, each row's department, the department slots, the rows
+ * of each department's members, so that a department section only
+ * visits its own rows, and the company and department sums. The sums
+ * come with the snapshot (Company's running totals), so rendering
+ * needs no kernel pass over all rows.
+ * Company renders its own reports from a live view over its structures;
+ * Company.snapshot() hands out a detached copy that a background thread
+ * can render while the Company keeps changing on its own thread.
+ */
+final class PayrollSnapshot {
+    private final List<Employee> employees;       // Row order; only the name and ID are read
+    private final List<Department> rowDepartments;
+    private final PayrollColumns columns;
+    private final Map<Department, Integer> departmentSlots;
+    private final Function<Department, int[]> departmentRows; // Members' rows in hire order; null if none
+    private final PayrollSubtotals sums; // Indexed by department slot
+
+    PayrollSnapshot(List<Employee> employees, List<Department> rowDepartments, PayrollColumns columns,
+                    Map<Department, Integer> departmentSlots, Function<Department, int[]> departmentRows,
+                    PayrollSubtotals sums) {
+        this.employees = employees;
+        this.rowDepartments = rowDepartments;
+        this.columns = columns;
+        this.departmentSlots = departmentSlots;
+        this.departmentRows = departmentRows;
+        this.sums = sums;
+    }
+
+    /** REPORT: Weekly pay of every employee plus the company total. */
+    public String renderCompanyPayroll() {
+        StringBuilder sb = new StringBuilder("--- WEEKLY COMPANY-WIDE PAYROLL REPORT ---\n\n");
+        for (int i = 0; i < employees.size(); i++) {
+            Employee emp = employees.get(i);
+            sb.append(String.format("PAYING: %-20s (%s, %-12s) --- $%,.2f%n",
+                    emp.getFullName(), emp.getEmployeeID(), rowDepartments.get(i).getDeptName(), columns.weeklyPay(i)));
+        }
+        sb.append("\n---------------------------------------------------------------------\n");
+        sb.append(String.format("TOTAL COMPANY PAYROLL: $%,.2f%n", sums.getTotalWeeklyPay()));
+        return sb.toString();
+    }
+
+    /** REPORT: One department's section on its own, e.g. for a scheduled per-department run. */
+    public String renderDepartmentReport(Department dept) {
+        return "--- WEEKLY PAYROLL REPORT BY DEPARTMENT ---\n" + renderDepartmentSection(dept).text;
+    }
+
+    /** EXPORT: Writes payroll.csv and payroll.bin into the directory; returns a summary. */
+    public String export(Path directory) throws IOException {
+        PayrollTotals totals = PayrollTotals.compute(columns, sums.getDepartmentSlots()); // Every row's pay and bonus
+        Path csvFile = directory.resolve("payroll.csv");
+        Path columnarFile = directory.resolve("payroll.bin");
+        PayrollExporter.exportCsv(csvFile, employees, rowDepartments, totals);
+        PayrollExporter.exportColumnar(columnarFile, employees, rowDepartments, totals);
+        return String.format("--- PAYROLL EXPORT COMPLETE ---%n%n%,d employee(s) exported.%n  CSV:      %s%n  Columnar: %s%n",
+                employees.size(), csvFile, columnarFile);
+    }
+
+    ReportCache.DepartmentSection renderDepartmentSection(Department dept) {
+        Integer slot = departmentSlots.get(dept);
+        if (slot == null) {
+            throw new IllegalArgumentException("Department " + dept.getDeptName() + " is not part of this company.");
+        }
+        StringBuilder sb = new StringBuilder(String.format("%n=== DEPARTMENT: %s ===%n", dept.getDeptName().toUpperCase()));
+        int[] rows = departmentRows.apply(dept);
+        if (rows != null) {
+            for (int row : rows) {
+                Employee emp = employees.get(row);
+                sb.append(String.format("  PAYING: %-20s (%s) --- $%,.2f%n", emp.getFullName(), emp.getEmployeeID(), columns.weeklyPay(row)));
+            }
+        }
+        if (sums.getDeptHeadcount(slot) == 0) {
+            sb.append("  No employees processed for this department.\n");
+            return new ReportCache.DepartmentSection(sb.toString(), 0.0);
+        }
+        sb.append(String.format("  --- DEPARTMENT SUBTOTAL: $%,.2f ---%n", sums.getDeptSubtotal(slot)));
+        return new ReportCache.DepartmentSection(sb.toString(), sums.getDeptSubtotal(slot));
+    }
+}
@@ -0,0 +1,300 @@
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/*
+ * ===================================================================
+ * FILE: PayrollSoakHarness.java (Load and Soak Testing)
+ * ===================================================================
+ * Builds a realistic synthetic Company and replays mixed traffic
+ * (hires, lookups, hour updates, payroll runs) against it for a fixed
+ * time, printing throughput, latency percentiles, heap and GC stats.
+ *
+ * Drives the shared engine (Company and the model classes), the same code behind
+ * both the console and the Swing front ends:
+ *   javac -encoding UTF-8 *.java
+ *   java -Xmx4g PayrollSoakHarness --employees 1000000 --minutes 240
+ * Company has no terminations, so hires stop at --max-employees (default:
+ * the starting size plus 10%) and further hire slots run as lookups;
+ * otherwise a long soak would measure an ever-growing company.
+ */
+public class PayrollSoakHarness {
+
+    private enum Operation { HIRE, LOOKUP, UPDATE_HOURS, PAYROLL }
+
+    // Traffic mix in percent; must add up to 100
+    private static final int HIRE_PERCENT = 4;
+    private static final int LOOKUP_PERCENT = 70;
+    private static final int UPDATE_HOURS_PERCENT = 25;
+
+    public static void main(String[] args) {
+        int employees = intArg(args, "--employees", 100_000);
+        int departments = intArg(args, "--departments", 40);
+        long seed = longArg(args, "--seed", 42);
+        int minutes = intArg(args, "--minutes", 1);
+        int reportSeconds = intArg(args, "--report-seconds", 10);
+        int maxEmployees = intArg(args, "--max-employees", employees + employees / 10);
+        if (employees < 1 || departments < 1) {
+            System.err.println("--employees and --departments must be at least 1.");
+            return;
+        }
+        if (maxEmployees < employees) {
+            System.err.println("--max-employees must be at least --employees.");
+            return;
+        }
+
+        System.out.printf("Generating %,d employees in %d departments (seed %d)...%n", employees, departments, seed);
+        long start = System.nanoTime();
+        SyntheticCompanyGenerator generator = new SyntheticCompanyGenerator(seed, departments);
+        Company company = generator.generate(employees);
+        System.out.printf("Generated in %,d ms. %s%n", (System.nanoTime() - start) / 1_000_000, memoryAndGcStats());
+
+        new PayrollSoakHarness().run(company, generator, new Random(seed + 1),
+                minutes * 60_000L, reportSeconds * 1_000L, maxEmployees);
+    }
+
+    private void run(Company company, SyntheticCompanyGenerator generator, Random random,
+                     long durationMs, long reportIntervalMs, int maxEmployees) {
+        EnumMap<Operation, LatencyRecorder> latencies = new EnumMap<>(Operation.class);
+        for (Operation op : Operation.values()) latencies.put(op, new LatencyRecorder(random));
+
+        long runStart = System.currentTimeMillis();
+        long nextReport = runStart + reportIntervalMs;
+        long opsSinceReport = 0;
+        long intervalStart = System.nanoTime();
+        long cappedHires = 0;
+
+        while (System.currentTimeMillis() - runStart < durationMs) {
+            Operation op = pickOperation(random);
+            if (op == Operation.HIRE && company.getEmployees().size() >= maxEmployees) {
+                if (cappedHires++ == 0) {
+                    System.out.printf("[%s] Reached %,d employees; further hires run as lookups.%n", elapsed(runStart), maxEmployees);
+                }
+                op = Operation.LOOKUP;
+            }
+            if (op == Operation.UPDATE_HOURS && !generator.hasPartTimers()) op = Operation.LOOKUP; // e.g. --employees 1
+
+            // Inputs are picked before t0 so that only the Company call is timed
+            String lookupId = op == Operation.LOOKUP ? generator.randomEmployeeId(random) : null;
+            PartTimeEmployee partTimer = op == Operation.UPDATE_HOURS ? generator.randomPartTimer(random) : null;
+            int hours = op == Operation.UPDATE_HOURS ? generator.randomHours() : 0;
+
+            long t0 = System.nanoTime();
+            switch (op) {
+                case HIRE:
+                    generator.hireOne(company);
+                    break;
+                case LOOKUP:
+                    company.findEmployeeByID(lookupId);
+                    break;
+                case UPDATE_HOURS:
+                    company.setHoursWorked(partTimer, hours);
+                    break;
+                case PAYROLL:
+                    company.generateDepartmentPayrollReportAsString();
+                    break;
+            }
+            latencies.get(op).record(System.nanoTime() - t0);
+            opsSinceReport++;
+
+            if (System.currentTimeMillis() >= nextReport) {
+                double seconds = (System.nanoTime() - intervalStart) / 1e9;
+                System.out.printf("[%s] %,.0f ops/s | %s%n", elapsed(runStart), opsSinceReport / seconds, memoryAndGcStats());
+                for (Operation reported : Operation.values()) {
+                    System.out.printf("    %-13s %s%n", reported, latencies.get(reported).summarizeAndReset());
+                }
+                opsSinceReport = 0;
+                intervalStart = System.nanoTime();
+                nextReport += reportIntervalMs;
+            }
+        }
+        System.out.printf("Soak finished after %s with %,d employees (%,d hire(s) skipped at the cap). %s%n",
+                elapsed(runStart), company.getEmployees().size(), cappedHires, memoryAndGcStats());
+    }
+
+    private static Operation pickOperation(Random random) {
+        int roll = random.nextInt(100);
+        if (roll < HIRE_PERCENT) return Operation.HIRE;
+        if (roll < HIRE_PERCENT + LOOKUP_PERCENT) return Operation.LOOKUP;
+        if (roll < HIRE_PERCENT + LOOKUP_PERCENT + UPDATE_HOURS_PERCENT) return Operation.UPDATE_HOURS;
+        // Payroll runs are rare but heavy: roughly 1 in 10,000 operations
+        return random.nextInt(100) == 0 ? Operation.PAYROLL : Operation.LOOKUP;
+    }
+
+    private static String memoryAndGcStats() {
+        Runtime rt = Runtime.getRuntime();
+        long usedMb = (rt.totalMemory() - rt.freeMemory()) >> 20;
+        long gcCount = 0;
+        long gcMillis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount += Math.max(0, gc.getCollectionCount());
+            gcMillis += Math.max(0, gc.getCollectionTime());
+        }
+        return String.format("heap %,d/%,d MB | GC %,d collections, %,d ms total", usedMb, rt.maxMemory() >> 20, gcCount, gcMillis);
+    }
+
+    private static String elapsed(long startMs) {
+        long s = (System.currentTimeMillis() - startMs) / 1000;
+        return String.format("%02d:%02d:%02d", s / 3600, (s / 60) % 60, s % 60);
+    }
+
+    private static int intArg(String[] args, String name, int defaultValue) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(name)) return Integer.parseInt(args[i + 1]);
+        }
+        return defaultValue;
+    }
+
+    private static long longArg(String[] args, String name, long defaultValue) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(name)) return Long.parseLong(args[i + 1]);
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Latency samples for one reporting interval. Keeps a fixed-size uniform
+     * sample (reservoir sampling) so memory stays flat however long the soak runs.
+     */
+    private static class LatencyRecorder {
+        private static final int CAPACITY = 50_000;
+
+        private final long[] samples = new long[CAPACITY];
+        private final Random random;
+        private long count;
+        private long max;
+
+        LatencyRecorder(Random random) {
+            this.random = random;
+        }
+
+        void record(long nanos) {
+            if (count < CAPACITY) {
+                samples[(int) count] = nanos;
+            } else {
+                long slot = (long) (random.nextDouble() * (count + 1));
+                if (slot < CAPACITY) samples[(int) slot] = nanos;
+            }
+            count++;
+            max = Math.max(max, nanos);
+        }
+
+        String summarizeAndReset() {
+            if (count == 0) return "no operations";
+            int n = (int) Math.min(count, CAPACITY);
+            long[] sorted = Arrays.copyOf(samples, n);
+            Arrays.sort(sorted);
+            String summary = String.format("n=%,d  p50=%s  p90=%s  p99=%s  p99.9=%s  max=%s", count,
+                    micros(sorted[n * 50 / 100]), micros(sorted[n * 90 / 100]),
+                    micros(sorted[n * 99 / 100]), micros(sorted[(int) (n * 999L / 1000)]), micros(max));
+            count = 0;
+            max = 0;
+            return summary;
+        }
+
+        private static String micros(long nanos) {
+            return String.format("%,.1fus", nanos / 1000.0);
+        }
+    }
+}
+
+
+/*
+ * ===================================================================
+ * CLASS: SyntheticCompanyGenerator (Seeded Test Data)
+ * ===================================================================
+ * Same seed, same company. Department sizes follow a Zipf-like skew
+ * (a few large departments, a long tail of small ones), about 70% of
+ * staff are full-time, and part-time hours cluster around 20 per week.
+ */
+class SyntheticCompanyGenerator {
+    private static final String[] FIRST_NAMES = { "Ana", "Bob", "Carla", "David", "Eve", "Farah", "Gus", "Hana",
+            "Ivan", "Jia", "Kofi", "Lena", "Mateo", "Nia", "Omar", "Priya", "Quinn", "Rosa", "Sven", "Tariq" };
+    private static final String[] LAST_NAMES = { "Smith", "Johnson", "Diaz", "Lee", "Brown", "Khan", "Nguyen",
+            "Garcia", "Müller", "Okafor", "Rossi", "Sato", "Silva", "Novak", "Cohen", "Ahmed", "Larsen", "Ortiz" };
+    private static final String[] DEPT_NAMES = { "Sales", "Engineering", "Marketing", "Finance", "Support",
+            "Operations", "Legal", "Research", "Logistics", "Facilities" };
+    private static final double FULL_TIME_SHARE = 0.70;
+    private static final double DEPARTMENT_SKEW = 1.1; // Zipf exponent
+
+    private final Random random;
+    private final List<Department> departments = new ArrayList<>();
+    private final double[] cumulativeWeights;
+    private long[] employeeIds = new long[1024]; // Packed IDs; formatted only when a lookup needs one
+    private int employeeCount;
+    private final List<PartTimeEmployee> partTimers = new ArrayList<>();
+
+    SyntheticCompanyGenerator(long seed, int departmentCount) {
+        this.random = new Random(seed);
+        this.cumulativeWeights = new double[departmentCount];
+        double total = 0.0;
+        for (int d = 0; d < departmentCount; d++) {
+            String name = DEPT_NAMES[d % DEPT_NAMES.length] + (d < DEPT_NAMES.length ? "" : " " + (d / DEPT_NAMES.length + 1));
+            departments.add(new Department("D" + (d + 1), name));
+            total += 1.0 / Math.pow(d + 1, DEPARTMENT_SKEW);
+            cumulativeWeights[d] = total;
+        }
+        for (int d = 0; d < departmentCount; d++) cumulativeWeights[d] /= total;
+    }
+
+    public Company generate(int employeeCount) {
+        Company company = new Company();
+        departments.forEach(company::addDepartment);
+        for (int i = 0; i < employeeCount; i++) {
+            hireOne(company);
+        }
+        return company;
+    }
+
+    public void hireOne(Company company) {
+        Department dept = pickDepartment();
+        String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+
+        Employee emp;
+        if (random.nextDouble() < FULL_TIME_SHARE) {
+            // Log-normal salaries: median about $65k with a long upper tail
+            double salary = Math.round(65_000 * Math.exp(0.35 * random.nextGaussian()));
+            emp = new FullTimeEmployee(first, last, salary, dept);
+            company.hireEmployee(emp);
+        } else {
+            double rate = 15.0 + Math.round(random.nextDouble() * 3000) / 100.0; // $15.00 - $45.00
+            PartTimeEmployee ptEmp = new PartTimeEmployee(first, last, rate, dept);
+            company.hireEmployee(ptEmp);
+            company.setHoursWorked(ptEmp, randomHours());
+            partTimers.add(ptEmp);
+            emp = ptEmp;
+        }
+        if (employeeCount == employeeIds.length) employeeIds = Arrays.copyOf(employeeIds, employeeCount * 2);
+        employeeIds[employeeCount++] = emp.getPackedId();
+    }
+
+    /** Part-time hours: roughly normal around 20, clipped to 0-40. */
+    public int randomHours() {
+        return (int) Math.max(0, Math.min(40, Math.round(20 + 8 * random.nextGaussian())));
+    }
+
+    /** Random existing ID, in random letter case like real user input. */
+    public String randomEmployeeId(Random r) {
+        String id = EmployeeIds.format(employeeIds[r.nextInt(employeeCount)]);
+        return r.nextBoolean() ? id : id.toLowerCase(Locale.ROOT);
+    }
+
+    public boolean hasPartTimers() { return !partTimers.isEmpty(); }
+
+    /** Only valid while hasPartTimers() is true. */
+    public PartTimeEmployee randomPartTimer(Random r) {
+        return partTimers.get(r.nextInt(partTimers.size()));
+    }
+
+    private Department pickDepartment() {
+        int index = Arrays.binarySearch(cumulativeWeights, random.nextDouble());
+        if (index < 0) index = -index - 1;
+        return departments.get(Math.min(index, departments.size() - 1));
+    }
+}
@@ -0,0 +1,124 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/*
+ * ===================================================================
+ * CLASS: PayrollSubtotals (Mergeable Payroll Sums)
+ * ===================================================================
+ * Company-wide and per-department sums over some set of pay rows.
+ * Partial subtotals from parallel slices or from shard processes are
+ * merged into one; headcounts merge exactly, pay sums up to rounding.
+ * Company also keeps one instance as RUNNING TOTALS and applies every
+ * hire, hours update and move to it, so reports need no kernel pass.
+ */
+class PayrollSubtotals {
+    double[] deptSubtotals; // Indexed by department slot
+    int[] deptHeadcounts;
+    int rows;
+    double totalWeeklyPay;
+    double totalBonusCost;
+
+    PayrollSubtotals(int departmentCount) {
+        this.deptSubtotals = new double[departmentCount];
+        this.deptHeadcounts = new int[departmentCount];
+    }
+
+    public void merge(PayrollSubtotals partial) {
+        if (partial.deptSubtotals.length != deptSubtotals.length) {
+            throw new IllegalArgumentException("Partial has " + partial.deptSubtotals.length
+                    + " department slots, expected " + deptSubtotals.length);
+        }
+        for (int d = 0; d < deptSubtotals.length; d++) {
+            deptSubtotals[d] += partial.deptSubtotals[d];
+            deptHeadcounts[d] += partial.deptHeadcounts[d];
+        }
+        rows += partial.rows;
+        totalWeeklyPay += partial.totalWeeklyPay;
+        totalBonusCost += partial.totalBonusCost;
+    }
+
+    /** An independent copy, e.g. for a detached snapshot. */
+    public PayrollSubtotals copy() {
+        PayrollSubtotals copy = new PayrollSubtotals(deptSubtotals.length);
+        copy.merge(this);
+        return copy;
+    }
+
+    /** Grows to at least the given number of department slots; new slots start empty. */
+    void ensureSlots(int departmentCount) {
+        if (departmentCount <= deptSubtotals.length) return;
+        deptSubtotals = Arrays.copyOf(deptSubtotals, departmentCount);
+        deptHeadcounts = Arrays.copyOf(deptHeadcounts, departmentCount);
+    }
+
+    // --- Running totals: one call per change, slot -1 means no department ---
+
+    void addRow(int slot, double pay, double bonus) {
+        rows++;
+        totalWeeklyPay += pay;
+        totalBonusCost += bonus;
+        if (slot >= 0) {
+            deptSubtotals[slot] += pay;
+            deptHeadcounts[slot]++;
+        }
+    }
+
+    void changePay(int slot, double oldPay, double newPay) {
+        totalWeeklyPay = nonNegative(totalWeeklyPay - oldPay + newPay);
+        if (slot >= 0) deptSubtotals[slot] = nonNegative(deptSubtotals[slot] - oldPay + newPay);
+    }
+
+    void moveRow(int fromSlot, int toSlot, double pay) {
+        if (fromSlot >= 0) {
+            deptHeadcounts[fromSlot]--;
+            deptSubtotals[fromSlot] = deptHeadcounts[fromSlot] == 0 ? 0.0 : nonNegative(deptSubtotals[fromSlot] - pay);
+        }
+        if (toSlot >= 0) {
+            deptSubtotals[toSlot] += pay;
+            deptHeadcounts[toSlot]++;
+        }
+    }
+
+    /** Pay is never negative; subtracting can leave rounding residue just below zero ("-0.00"). */
+    private static double nonNegative(double sum) {
+        return Math.max(0.0, sum);
+    }
+
+    /** WIRE: rows, total pay, total bonus, slot count, then (headcount, subtotal) per slot. */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(rows);
+        out.writeDouble(totalWeeklyPay);
+        out.writeDouble(totalBonusCost);
+        out.writeInt(deptSubtotals.length);
+        for (int d = 0; d < deptSubtotals.length; d++) {
+            out.writeInt(deptHeadcounts[d]);
+            out.writeDouble(deptSubtotals[d]);
+        }
+    }
+
+    public static PayrollSubtotals readFrom(DataInput in) throws IOException {
+        int rows = in.readInt();
+        double totalWeeklyPay = in.readDouble();
+        double totalBonusCost = in.readDouble();
+        int departmentCount = in.readInt();
+        if (rows < 0 || departmentCount < 0) throw new IOException("Corrupt subtotals: " + rows + " rows, " + departmentCount + " slots");
+        PayrollSubtotals subtotals = new PayrollSubtotals(departmentCount);
+        subtotals.rows = rows;
+        subtotals.totalWeeklyPay = totalWeeklyPay;
+        subtotals.totalBonusCost = totalBonusCost;
+        for (int d = 0; d < departmentCount; d++) {
+            subtotals.deptHeadcounts[d] = in.readInt();
+            subtotals.deptSubtotals[d] = in.readDouble();
+        }
+        return subtotals;
+    }
+
+    public int getRows() { return rows; }
+    public int getDepartmentSlots() { return deptSubtotals.length; }
+    public double getDeptSubtotal(int deptIndex) { return deptSubtotals[deptIndex]; }
+    public int getDeptHeadcount(int deptIndex) { return deptHeadcounts[deptIndex]; }
+    public double getTotalWeeklyPay() { return totalWeeklyPay; }
+    public double getTotalBonusCost() { return totalBonusCost; }
+}
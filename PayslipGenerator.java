@@ -0,0 +1,159 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * ===================================================================
+ * CLASS: PayslipGenerator (Per-Employee Payslips)
+ * ===================================================================
+ * The template is parsed ONCE into literal text and placeholders, so
+ * rendering a payslip is just appending pieces. Files are written in
+ * batches by a bounded pool of worker threads.
+ */
+class PayslipGenerator {
+    private static final int BATCH_SIZE = 256;
+
+    static final String TEXT_TEMPLATE =
+            "==============================\n" +
+            "           PAYSLIP\n" +
+            "==============================\n" +
+            "ID:           {id}\n" +
+            "Name:         {name}\n" +
+            "Type:         {type}\n" +
+            "Department:   {department}\n" +
+            "Pay Basis:    {pay_basis}\n" +
+            "Weekly Pay:   ${weekly_pay}\n" +
+            "Annual Bonus: ${annual_bonus}\n" +
+            "==============================\n";
+
+    static final String HTML_TEMPLATE =
+            "<!DOCTYPE html>\n<html><head><meta charset=\"UTF-8\"><title>Payslip {id}</title></head><body>\n" +
+            "<h1>Payslip</h1>\n<table>\n" +
+            "<tr><th>ID</th><td>{id}</td></tr>\n" +
+            "<tr><th>Name</th><td>{name}</td></tr>\n" +
+            "<tr><th>Type</th><td>{type}</td></tr>\n" +
+            "<tr><th>Department</th><td>{department}</td></tr>\n" +
+            "<tr><th>Pay Basis</th><td>{pay_basis}</td></tr>\n" +
+            "<tr><th>Weekly Pay</th><td>${weekly_pay}</td></tr>\n" +
+            "<tr><th>Annual Bonus</th><td>${annual_bonus}</td></tr>\n" +
+            "</table>\n</body></html>\n";
+
+    private enum Field { ID, NAME, TYPE, DEPARTMENT, PAY_BASIS, WEEKLY_PAY, ANNUAL_BONUS }
+
+    // COMPILED TEMPLATE: literals[i] is followed by fields[i]; the last literal has no field
+    private final String[] literals;
+    private final Field[] fields;
+    private final boolean html;
+
+    public PayslipGenerator(String template, boolean html) {
+        ArrayList<String> literalList = new ArrayList<>();
+        ArrayList<Field> fieldList = new ArrayList<>();
+        int pos = 0;
+        int open;
+        while ((open = template.indexOf('{', pos)) >= 0) {
+            int close = template.indexOf('}', open);
+            if (close < 0) break;
+            literalList.add(template.substring(pos, open));
+            fieldList.add(Field.valueOf(template.substring(open + 1, close).toUpperCase(Locale.ROOT)));
+            pos = close + 1;
+        }
+        literalList.add(template.substring(pos));
+        this.literals = literalList.toArray(new String[0]);
+        this.fields = fieldList.toArray(new Field[0]);
+        this.html = html;
+    }
+
+    public String render(Employee emp, double weeklyPay, double annualBonus) {
+        StringBuilder sb = new StringBuilder(512);
+        for (int i = 0; i < fields.length; i++) {
+            sb.append(literals[i]);
+            switch (fields[i]) {
+                case ID:           appendValue(sb, emp.getEmployeeID()); break;
+                case NAME:         appendValue(sb, emp.getFullName()); break;
+                case TYPE:         appendValue(sb, emp.getEmployeeType().toString()); break;
+                case DEPARTMENT:   appendValue(sb, emp.getWorkingDept().getDeptName()); break;
+                case PAY_BASIS:    appendValue(sb, payBasis(emp)); break;
+                case WEEKLY_PAY:   sb.append(String.format("%,.2f", weeklyPay)); break;
+                case ANNUAL_BONUS: sb.append(String.format("%,.2f", annualBonus)); break;
+            }
+        }
+        return sb.append(literals[literals.length - 1]).toString();
+    }
+
+    /**
+     * Writes one payslip file per employee into the directory, using at most one
+     * worker per core. Each task renders and writes a batch of employees.
+     * @return the number of payslips written
+     */
+    public int writeAll(List<Employee> employees, PayrollTotals totals, Path directory)
+            throws IOException, InterruptedException {
+        Files.createDirectories(directory);
+        String extension = html ? ".html" : ".txt";
+        int workers = Runtime.getRuntime().availableProcessors();
+
+        // BOUNDED: a full queue makes the submitting thread run the batch itself
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers * 2), new ThreadPoolExecutor.CallerRunsPolicy());
+        ArrayList<Future<?>> batches = new ArrayList<>();
+        try {
+            for (int from = 0; from < employees.size(); from += BATCH_SIZE) {
+                int start = from;
+                int end = Math.min(employees.size(), from + BATCH_SIZE);
+                batches.add(pool.submit(() -> {
+                    for (int i = start; i < end; i++) {
+                        Employee emp = employees.get(i);
+                        String slip = render(emp, totals.getWeeklyPay(i), totals.getAnnualBonus(i));
+                        Files.write(directory.resolve(emp.getEmployeeID() + extension),
+                                slip.getBytes(StandardCharsets.UTF_8));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> batch : batches) {
+                batch.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IOException("Payslip could not be written: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return employees.size();
+    }
+
+    private static String payBasis(Employee emp) {
+        if (emp instanceof FullTimeEmployee) {
+            return String.format("Annual Salary $%,.2f", ((FullTimeEmployee) emp).getAnnualSalary());
+        }
+        if (emp instanceof PartTimeEmployee) {
+            PartTimeEmployee ptEmp = (PartTimeEmployee) emp;
+            return String.format("$%.2f/hour x %d hours", ptEmp.getHourlyRate(), ptEmp.getHoursWorked());
+        }
+        return "";
+    }
+
+    private void appendValue(StringBuilder sb, String value) {
+        if (!html) {
+            sb.append(value);
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<':  sb.append("&lt;"); break;
+                case '>':  sb.append("&gt;"); break;
+                case '&':  sb.append("&amp;"); break;
+                case '"':  sb.append("&quot;"); break;
+                default:   sb.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+import java.util.EnumMap;
+import java.util.HashMap;
+
+/*
+ * ===================================================================
+ * CLASS: ReportCache (Memoized Report Text)
+ * ===================================================================
+ * Holds the last rendered text of each report, plus one section per
+ * department for the department report. Company invalidates only the
+ * entries that a change actually affects.
+ * Sections are not evicted: the department report renders every
+ * department each time, so any cap below the department count would
+ * drop each section just before it is needed again. There is at most
+ * one section per department, and removed departments are invalidated.
+ */
+class ReportCache {
+    private final EnumMap<ReportType, String> reports = new EnumMap<>(ReportType.class);
+    private final HashMap<Department, DepartmentSection> sections = new HashMap<>();
+
+    public String get(ReportType type) { return reports.get(type); }
+    public void put(ReportType type, String text) { reports.put(type, text); }
+
+    public DepartmentSection getSection(Department dept) { return sections.get(dept); }
+    public void putSection(Department dept, DepartmentSection section) { sections.put(dept, section); }
+
+    public void invalidate(ReportType... types) {
+        for (ReportType type : types) reports.remove(type);
+    }
+
+    /** Drops every cached report and section. */
+    public void clear() {
+        reports.clear();
+        sections.clear();
+    }
+
+    /** Drops one department's section; the assembled department report goes with it. */
+    public void invalidateDepartment(Department dept) {
+        sections.remove(dept);
+        reports.remove(ReportType.DEPARTMENT_PAYROLL);
+    }
+
+    /** One rendered "=== DEPARTMENT ===" block and the subtotal it printed. */
+    static class DepartmentSection {
+        final String text;
+        final double subtotal;
+
+        DepartmentSection(String text, double subtotal) {
+            this.text = text;
+            this.subtotal = subtotal;
+        }
+    }
+}
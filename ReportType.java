@@ -0,0 +1,11 @@
+/*
+ * ===================================================================
+ * ENUM: ReportType (Cacheable Reports)
+ * ===================================================================
+ */
+enum ReportType {
+    ALL_EMPLOYEES,
+    COMPANY_PAYROLL,
+    DEPARTMENT_PAYROLL,
+    END_OF_YEAR
+}
@@ -0,0 +1,27 @@
+/*
+ * ===================================================================
+ * CLASS: ScenarioResult (What-If Totals)
+ * ===================================================================
+ * Per-department weekly payroll and annual bonus cost for one scenario,
+ * indexed like the Company's department list.
+ */
+class ScenarioResult {
+    private final String scenarioName;
+    private final double[] deptPayroll;
+    private final double[] deptBonusCost;
+
+    public ScenarioResult(String scenarioName, int departmentCount) {
+        this.scenarioName = scenarioName;
+        this.deptPayroll = new double[departmentCount];
+        this.deptBonusCost = new double[departmentCount];
+    }
+
+    void add(int deptIndex, double weeklyPay, double annualBonus) {
+        deptPayroll[deptIndex] += weeklyPay;
+        deptBonusCost[deptIndex] += annualBonus;
+    }
+
+    public String getScenarioName() { return scenarioName; }
+    public double getDeptPayroll(int deptIndex) { return deptPayroll[deptIndex]; }
+    public double getDeptBonusCost(int deptIndex) { return deptBonusCost[deptIndex]; }
+}
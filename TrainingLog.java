@@ -0,0 +1,91 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+/*
+ * ===================================================================
+ * CLASS: TrainingLog (Durable Compliance Records)
+ * ===================================================================
+ * Appends one record per completed training, the whole batch in
+ * one call, to an append-only UTF-8 file in a single write, then forces it
+ * to disk before reporting success.
+ * Record format, one line per record, four tab-separated fields:
+ *   run ID (UUID, one per append)  timestamp (ISO-8601 UTC)  employee ID  full name
+ * Backslash, tab, CR and LF inside a field are written as \\, \t, \r
+ * and \n, so every record is exactly one line with exactly four fields.
+ */
+class TrainingLog {
+    private static final Path DEFAULT_LOG_FILE = Paths.get("training_log.txt");
+
+    private final Path logFile;
+    private String lastRunId;
+
+    TrainingLog() {
+        this(DEFAULT_LOG_FILE);
+    }
+
+    TrainingLog(Path logFile) {
+        this.logFile = logFile;
+    }
+
+    /**
+     * Appends one record per trainee to the log file under a new run ID and
+     * syncs the file. The batch is built per call and nothing is kept, so a
+     * failed write leaves no state behind and a retry writes each record once.
+     * @return the number of records written
+     */
+    public int append(List<? extends Employee> trainees) throws IOException {
+        if (trainees.isEmpty()) return 0;
+        String runId = UUID.randomUUID().toString();
+        String timestamp = Instant.now().truncatedTo(ChronoUnit.MILLIS).toString(); // One timestamp for the whole run
+        StringBuilder batch = new StringBuilder(trainees.size() * 80);
+        for (Employee emp : trainees) {
+            batch.append(runId).append('\t').append(timestamp).append('\t')
+                 .append(escape(emp.getEmployeeID())).append('\t').append(escape(emp.getFullName())).append('\n');
+        }
+
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(batch.toString());
+        try (FileChannel channel = FileChannel.open(logFile,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE)) {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(true); // The records must survive a crash once we report them saved
+        }
+        lastRunId = runId;
+        return trainees.size();
+    }
+
+    /** Run ID of the last successful append, or null if nothing was written yet. */
+    public String getLastRunId() { return lastRunId; }
+
+    static String escape(String field) {
+        StringBuilder escaped = null;
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            String replacement;
+            switch (c) {
+                case '\\': replacement = "\\\\"; break;
+                case '\t': replacement = "\\t"; break;
+                case '\r': replacement = "\\r"; break;
+                case '\n': replacement = "\\n"; break;
+                default: replacement = null;
+            }
+            if (replacement == null) {
+                if (escaped != null) escaped.append(c);
+            } else {
+                if (escaped == null) escaped = new StringBuilder(field.length() + 8).append(field, 0, i);
+                escaped.append(replacement);
+            }
+        }
+        return escaped == null ? field : escaped.toString();
+    }
+}
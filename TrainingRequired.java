@@ -0,0 +1,8 @@
+/*
+ * ===================================================================
+ * INTERFACE: TrainingRequired (Compliance Training Behavior)
+ * ===================================================================
+ */
+interface TrainingRequired {
+    void attendMandatoryTraining();
+}